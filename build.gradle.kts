@@ -31,6 +31,7 @@ repositories {
     }
     maven("https://harleyoconnor.com/maven")
     maven("https://squiddev.cc/maven/")
+    mavenCentral()
 }
 
 val modName = property("modName")
@@ -82,6 +83,14 @@ sourceSets.main.get().resources {
     srcDir("src/localization/resources")
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+configurations["jmhRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     minecraft("net.minecraftforge:forge:$mcVersion-${property("forgeVersion")}")
 
@@ -100,6 +109,9 @@ dependencies {
     runtimeOnly(fg.deobf("vazkii.patchouli:Patchouli:${property("patchouliVersion")}"))
     runtimeOnly(fg.deobf("org.squiddev:cc-tweaked-$mcVersion:${property("ccVersion")}"))
     runtimeOnly(fg.deobf("com.harleyoconnor.suggestionproviderfix:SuggestionProviderFix:$mcVersion-${property("suggestionProviderFixVersion")}"))
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:${property("jmhVersion")}")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:${property("jmhVersion")}")
 }
 
 fun useSereneSeasons(depHandler: DependencyHandlerScope) {
@@ -119,6 +131,28 @@ translationSheet {
     this.useJson()
 }
 
+/**
+ * Runs the benchmarks of the jmh source set and writes the results to build/reports/jmh/results.json. A regex of the
+ * benchmarks to run may be passed with -PjmhInclude=..., for example -PjmhInclude=CellSolverBenchmark.
+ */
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks and writes the results as JSON."
+
+    val resultsFile = file("$buildDir/reports/jmh/results.json")
+
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-rf", "json", "-rff", resultsFile.absolutePath)
+    optionalProperty("jmhInclude")?.let { args(it) }
+    outputs.file(resultsFile)
+    outputs.upToDateWhen { false }
+
+    doFirst {
+        resultsFile.parentFile.mkdirs()
+    }
+}
+
 tasks.jar {
     manifest.attributes(
         "Specification-Title" to project.name,
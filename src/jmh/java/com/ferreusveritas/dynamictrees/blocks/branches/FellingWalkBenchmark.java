@@ -0,0 +1,181 @@
+package com.ferreusveritas.dynamictrees.blocks.branches;
+
+import com.ferreusveritas.dynamictrees.api.network.MapSignal;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.FellingNode;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.NetVolumeNode;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.SpeciesNode;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.StateNode;
+import com.ferreusveritas.dynamictrees.trees.Family;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.material.Material;
+import net.minecraft.util.Direction;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraft.world.IWorld;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the block reads of mapping a tree for felling with the single {@link FellingNode} walk that {@link
+ * BranchBlock#destroyBranchFromNode} uses against the three walks it replaced: a {@link SpeciesNode} walk of the whole
+ * network, a {@link StateNode} walk, and a {@link NetVolumeNode} walk, which also ran the {@code DestroyerNode}.
+ * <p>
+ * Trees are cut at the base of their trunk, with no rooty block below, so every walk covers the whole tree. The world
+ * is a stub that only answers {@link IWorld#getBlockState(BlockPos)} and counts the calls, which are reported per felled
+ * tree as the {@code blockReads} counter. The destroyer is left out of both paths, as it only writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FellingWalkBenchmark {
+
+    @Param({"64", "512", "4096"})
+    public int branches;
+
+    private BasicBranchBlock branch;
+    private IWorld world;
+    private final Long2ObjectOpenHashMap<BlockState> blocks = new Long2ObjectOpenHashMap<>();
+    private long readCount;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Reads {
+
+        public long blockReads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.blockReads = 0;
+        }
+
+    }
+
+    @Setup
+    public void setup() {
+        Bootstrap.bootStrap();
+
+        final Family family = new Family(new ResourceLocation("dynamictrees", "benchmark"));
+        family.setMaxSignalDepth(Integer.MAX_VALUE);
+        this.branch = new BasicBranchBlock(new ResourceLocation("dynamictrees", "benchmark"), Material.WOOD);
+        this.branch.setFamily(family);
+        family.addValidBranches(this.branch);
+
+        // Grow a random network of branches upwards from the origin, never touching a branch other than its parent,
+        // so the network has no loops.
+        final Random random = new Random(1234L);
+        final List<BlockPos> network = new ArrayList<>();
+        network.add(BlockPos.ZERO);
+        this.blocks.put(BlockPos.ZERO.asLong(), this.branch.getStateForRadius(8));
+
+        while (network.size() < this.branches) {
+            // Mostly extend recent branches, sometimes fork from anywhere so growth can't get boxed in.
+            final BlockPos from = random.nextInt(4) == 0 ? network.get(random.nextInt(network.size())) :
+                    network.get(network.size() - 1 - random.nextInt(Math.min(network.size(), 8)));
+            final Direction dir = random.nextInt(3) == 0 ? Direction.UP : Direction.from2DDataValue(random.nextInt(4));
+            final BlockPos pos = from.relative(dir);
+            if (this.blocks.containsKey(pos.asLong()) || this.touchesOtherThan(pos, from)) {
+                continue;
+            }
+            network.add(pos);
+            this.blocks.put(pos.asLong(), this.branch.getStateForRadius(1 + random.nextInt(7)));
+        }
+
+        final BlockState air = Blocks.AIR.defaultBlockState();
+        this.world = (IWorld) Proxy.newProxyInstance(IWorld.class.getClassLoader(), new Class<?>[]{IWorld.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getBlockState") && args != null && args.length == 1) {
+                        this.readCount++;
+                        return this.blocks.getOrDefault(((BlockPos) args[0]).asLong(), air);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        final int fused = this.fused(new Reads());
+        final int threeWalks = this.threeWalks(new Reads());
+        if (fused != this.branches || threeWalks != this.branches) {
+            throw new IllegalStateException("Mapped " + fused + " and " + threeWalks + " of " + this.branches +
+                    " branches.");
+        }
+    }
+
+    private boolean touchesOtherThan(BlockPos pos, BlockPos parent) {
+        for (Direction dir : Direction.values()) {
+            final BlockPos neighbour = pos.relative(dir);
+            if (!neighbour.equals(parent) && this.blocks.containsKey(neighbour.asLong())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps the tree as {@link BranchBlock#destroyBranchFromNode} does now.
+     *
+     * @return The number of branches mapped.
+     */
+    @Benchmark
+    public int fused(Reads reads) {
+        final long start = this.readCount;
+        final BlockState cutState = this.world.getBlockState(BlockPos.ZERO);
+
+        final FellingNode fellingNode = new FellingNode();
+        this.branch.analyse(cutState, this.world, BlockPos.ZERO, null, new MapSignal(fellingNode));
+
+        final StateNode stateMapper = new StateNode(BlockPos.ZERO);
+        final NetVolumeNode volumeSum = new NetVolumeNode();
+        for (final FellingNode.Node node : fellingNode.getNodes(null)) {
+            stateMapper.run(node.state, this.world, node.pos, node.fromDir);
+            volumeSum.run(node.state, this.world, node.pos, node.fromDir);
+        }
+
+        reads.blockReads += this.readCount - start;
+        return stateMapper.getBranchConnectionMap().size();
+    }
+
+    /**
+     * Maps the tree with the three walks {@link BranchBlock#destroyBranchFromNode} used before.
+     *
+     * @return The number of branches mapped.
+     */
+    @Benchmark
+    public int threeWalks(Reads reads) {
+        final long start = this.readCount;
+        final BlockState cutState = this.world.getBlockState(BlockPos.ZERO);
+
+        final MapSignal signal = this.branch.analyse(cutState, this.world, BlockPos.ZERO, null,
+                new MapSignal(new SpeciesNode()));
+
+        final StateNode stateMapper = new StateNode(BlockPos.ZERO);
+        this.branch.analyse(cutState, this.world, BlockPos.ZERO, signal.localRootDir, new MapSignal(stateMapper));
+
+        final NetVolumeNode volumeSum = new NetVolumeNode();
+        this.branch.analyse(cutState, this.world, BlockPos.ZERO, signal.localRootDir, new MapSignal(volumeSum));
+
+        reads.blockReads += this.readCount - start;
+        return stateMapper.getBranchConnectionMap().size();
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.ferreusveritas.dynamictrees.cells;
+
+import com.ferreusveritas.dynamictrees.api.cells.Cell;
+import com.ferreusveritas.dynamictrees.api.cells.CellNull;
+import com.ferreusveritas.dynamictrees.api.cells.CellSolver;
+import net.minecraft.util.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures solving leaf cells with the deciduous and conifer solvers over random neighbourhoods, which is done for
+ * every leaf block updated by the cellular automata.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellSolverBenchmark {
+
+    private static final int NEIGHBOURHOODS = 4096;
+
+    private static final short[] DECIDUOUS_CODES = {0x0514, 0x0423, 0x0322, 0x0411, 0x0311, 0x0211};
+
+    private final CellSolver deciduousSolver = new CellKits.BasicSolver(DECIDUOUS_CODES);
+    private final CellSolver coniferSolver = new CellKits.BasicSolver(new short[]{0x0514, 0x0413, 0x0312, 0x0211});
+
+    private Cell[][] neighbourhoods;
+
+    @Setup
+    public void setup() {
+        final Cell[] cells = new Cell[8];
+        cells[0] = CellNull.NULL_CELL;
+        for (int hydro = 1; hydro < cells.length; hydro++) {
+            cells[hydro] = new NormalCell(hydro);
+        }
+
+        final Random random = new Random(1234L);
+        this.neighbourhoods = new Cell[NEIGHBOURHOODS][6];
+        for (Cell[] neighbourhood : this.neighbourhoods) {
+            for (int side = 0; side < 6; side++) {
+                // Favour air as most leaves border it on several sides.
+                neighbourhood[side] = random.nextInt(3) == 0 ? cells[0] : cells[random.nextInt(6)];
+            }
+        }
+    }
+
+    @Benchmark
+    public int deciduous() {
+        return this.solveAll(this.deciduousSolver);
+    }
+
+    @Benchmark
+    public int conifer() {
+        return this.solveAll(this.coniferSolver);
+    }
+
+    /**
+     * Solves the deciduous cells by counting neighbour values and scanning the codes, as the solver did before it was
+     * compiled into a table.
+     */
+    @Benchmark
+    public int deciduousLinear() {
+        final int[] nv = new int[16];
+        int sum = 0;
+        for (Cell[] neighbourhood : this.neighbourhoods) {
+            Arrays.fill(nv, 0);
+            for (Direction dir : Direction.values()) {
+                nv[neighbourhood[dir.ordinal()].getValueFromSide(dir.getOpposite())]++;
+            }
+            sum += CellKits.solveCell(nv, DECIDUOUS_CODES);
+        }
+        return sum;
+    }
+
+    private int solveAll(CellSolver solver) {
+        int sum = 0;
+        for (Cell[] neighbourhood : this.neighbourhoods) {
+            sum += solver.solve(neighbourhood);
+        }
+        return sum;
+    }
+
+}
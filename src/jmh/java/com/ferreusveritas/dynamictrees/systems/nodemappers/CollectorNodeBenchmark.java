@@ -0,0 +1,98 @@
+package com.ferreusveritas.dynamictrees.systems.nodemappers;
+
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the packed long set of {@link CollectorNode} against the {@code HashSet<BlockPos>} it replaced, collecting
+ * the branches of a tree and then checking every neighbour of each branch against the set as a visited check would.
+ * Tree sizes range from a small oak to a large mega tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectorNodeBenchmark {
+
+    @Param({"64", "512", "4096"})
+    public int branches;
+
+    private BlockPos[] positions;
+
+    @Setup
+    public void setup() {
+        // Grow a random connected network of branches upwards from the origin.
+        final Random random = new Random(1234L);
+        final List<BlockPos> network = new ArrayList<>();
+        final Set<BlockPos> taken = new HashSet<>();
+        network.add(BlockPos.ZERO);
+        taken.add(BlockPos.ZERO);
+
+        while (network.size() < this.branches) {
+            final BlockPos from = network.get(network.size() - 1 - random.nextInt(Math.min(network.size(), 8)));
+            final Direction dir = random.nextInt(3) == 0 ? Direction.UP : Direction.from2DDataValue(random.nextInt(4));
+            final BlockPos pos = from.relative(dir);
+            if (taken.add(pos)) {
+                network.add(pos);
+            }
+        }
+        this.positions = network.toArray(new BlockPos[0]);
+    }
+
+    @Benchmark
+    public int packed() {
+        final CollectorNode collector = new CollectorNode();
+        for (BlockPos pos : this.positions) {
+            collector.run(null, null, pos, null);
+        }
+
+        int found = 0;
+        for (BlockPos pos : this.positions) {
+            for (Direction dir : Direction.values()) {
+                if (collector.contains(BlockPos.offset(pos.asLong(), dir))) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int boxed() {
+        final Set<BlockPos> collected = new HashSet<>();
+        for (BlockPos pos : this.positions) {
+            collected.add(pos);
+        }
+
+        int found = 0;
+        for (BlockPos pos : this.positions) {
+            for (Direction dir : Direction.values()) {
+                if (collected.contains(pos.relative(dir))) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.ferreusveritas.dynamictrees.systems.poissondisc;
+
+import com.ferreusveritas.dynamictrees.api.worldgen.RadiusCoordinator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the Poisson discs of a square of chunks with a {@link LevelPoissonDiscProvider}, using a fixed
+ * seed and a radius coordinator that varies radii by position instead of reading biomes.
+ * <p>
+ * Discs can be generated with or without the {@link PoissonDiscGrid}. Setup checks that both generate exactly the same
+ * discs for the fixed seed before anything is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoissonDiscBenchmark {
+
+    private static final int AREA = 8;
+
+    /**
+     * The smallest disc radius. Radii range up to three above it, so small values model dense forests.
+     */
+    @Param({"2", "4", "6"})
+    public int minRadius;
+
+    @Param({"true", "false"})
+    public boolean useGrid;
+
+    @Setup
+    public void verifyGridOutput() {
+        final List<String> withGrid = describeArea(createProvider(this.minRadius).setUseGrid(true));
+        final List<String> withoutGrid = describeArea(createProvider(this.minRadius).setUseGrid(false));
+        if (!withGrid.equals(withoutGrid)) {
+            throw new IllegalStateException("Discs generated with the grid differ from those generated without it for min radius " + this.minRadius + ".");
+        }
+    }
+
+    @Benchmark
+    public int generateArea() {
+        final LevelPoissonDiscProvider provider = createProvider(this.minRadius).setUseGrid(this.useGrid);
+
+        int discs = 0;
+        for (int chunkZ = 0; chunkZ < AREA; chunkZ++) {
+            for (int chunkX = 0; chunkX < AREA; chunkX++) {
+                final List<PoissonDisc> chunkDiscs = provider.getPoissonDiscs(chunkX, 0, chunkZ);
+                discs += chunkDiscs.size();
+            }
+        }
+        return discs;
+    }
+
+    /**
+     * Generates the area and describes every disc of every chunk, in order.
+     */
+    private static List<String> describeArea(LevelPoissonDiscProvider provider) {
+        final List<String> discs = new ArrayList<>();
+        for (int chunkZ = 0; chunkZ < AREA; chunkZ++) {
+            for (int chunkX = 0; chunkX < AREA; chunkX++) {
+                for (final PoissonDisc disc : provider.getPoissonDiscs(chunkX, 0, chunkZ)) {
+                    discs.add(chunkX + "," + chunkZ + ": " + disc);
+                }
+            }
+        }
+        return discs;
+    }
+
+    public static LevelPoissonDiscProvider createProvider(int minRadius) {
+        return new LevelPoissonDiscProvider(new FixedRadiusCoordinator(minRadius), 64).setSeed(1234L);
+    }
+
+    /**
+     * Picks radii from a hash of the position, so results are the same on every run.
+     */
+    public static final class FixedRadiusCoordinator implements RadiusCoordinator {
+
+        private final int minRadius;
+
+        public FixedRadiusCoordinator(int minRadius) {
+            this.minRadius = minRadius;
+        }
+
+        @Override
+        public int getRadiusAtCoords(int x, int z) {
+            final int hash = (x * 73856093) ^ (z * 19349663);
+            return this.minRadius + ((hash >>> 8) & 3);
+        }
+
+        @Override
+        public boolean runPass(int chunkX, int chunkZ, int pass) {
+            return pass == 0;
+        }
+
+    }
+
+}
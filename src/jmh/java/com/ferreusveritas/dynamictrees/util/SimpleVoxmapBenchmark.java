@@ -0,0 +1,67 @@
+package com.ferreusveritas.dynamictrees.util;
+
+import com.ferreusveritas.dynamictrees.cells.LeafClusters;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures painting the leaf clusters of a world generated tree into its leaf map with {@link
+ * SimpleVoxmap#blitMax(BlockPos, SimpleVoxmap)}, as the node inflator does for every branch end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleVoxmapBenchmark {
+
+    private static final int RADIUS = 8;
+    private static final int HEIGHT = 32;
+
+    @Param({"16", "64"})
+    public int ends;
+
+    @Param({"deciduous", "conifer"})
+    public String cluster;
+
+    private BlockPos[] endPoints;
+    private SimpleVoxmap leafCluster;
+    private SimpleVoxmap leafMap;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1234L);
+        this.endPoints = new BlockPos[this.ends];
+        for (int i = 0; i < this.ends; i++) {
+            this.endPoints[i] = new BlockPos(random.nextInt(RADIUS * 2 + 1) - RADIUS, 4 + random.nextInt(HEIGHT - 8),
+                    random.nextInt(RADIUS * 2 + 1) - RADIUS);
+        }
+        this.leafCluster = this.cluster.equals("conifer") ? LeafClusters.CONIFER : LeafClusters.DECIDUOUS;
+        this.leafMap = new SimpleVoxmap(RADIUS * 2 + 1, HEIGHT, RADIUS * 2 + 1)
+                .setMapAndCenter(BlockPos.ZERO, new BlockPos(RADIUS, 0, RADIUS));
+    }
+
+    @Benchmark
+    public SimpleVoxmap blitMax() {
+        this.leafMap.fill((byte) 0);
+        for (BlockPos end : this.endPoints) {
+            this.leafMap.blitMax(end, this.leafCluster);
+        }
+        return this.leafMap;
+    }
+
+}
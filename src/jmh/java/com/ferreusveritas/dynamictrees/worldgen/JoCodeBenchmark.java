@@ -0,0 +1,121 @@
+package com.ferreusveritas.dynamictrees.worldgen;
+
+import com.ferreusveritas.dynamictrees.trees.Species;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding the bundled JoCodes of a species and drawing their branches with {@link
+ * JoCode#generateFork(IWorld, Species, int, BlockPos, Direction, boolean)}. Branch placement is recorded rather than
+ * applied to a world, so this measures the interpretation of the instructions alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JoCodeBenchmark {
+
+    @Param({"oak", "spruce", "mega_spruce", "acacia"})
+    public String species;
+
+    private final List<String> codes = new ArrayList<>();
+    private final List<RecordingJoCode> joCodes = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        this.codes.addAll(readCodes(this.species));
+        for (String code : this.codes) {
+            this.joCodes.add(new RecordingJoCode(code));
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        for (String code : this.codes) {
+            blackhole.consume(JoCode.decode(code));
+        }
+    }
+
+    @Benchmark
+    public int generateFork() {
+        int placed = 0;
+        for (RecordingJoCode joCode : this.joCodes) {
+            placed += joCode.draw(BlockPos.ZERO);
+        }
+        return placed;
+    }
+
+    /**
+     * Reads the codes bundled for the given species from the main resources.
+     */
+    public static List<String> readCodes(String species) throws IOException {
+        final String path = "/trees/dynamictrees/jo_codes/" + species + ".txt";
+        final List<String> codes = new ArrayList<>();
+
+        try (InputStream stream = JoCodeBenchmark.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                throw new IOException("Missing JoCode resource " + path);
+            }
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int separator = line.indexOf(':');
+                if (separator != -1) {
+                    codes.add(line.substring(separator + 1).trim());
+                }
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * A {@link JoCode} that counts the branches it would place instead of placing them.
+     */
+    static final class RecordingJoCode extends JoCode {
+
+        private int placed;
+
+        RecordingJoCode(String code) {
+            super(code);
+        }
+
+        int draw(BlockPos rootPos) {
+            this.placed = 0;
+            this.generateFork(null, null, 0, rootPos, Direction.NORTH, false);
+            return this.placed;
+        }
+
+        @Override
+        protected boolean setBlockForGeneration(IWorld world, Species species, BlockPos pos, Direction dir,
+                                                boolean careful, boolean isLast) {
+            this.placed++;
+            return false;
+        }
+
+    }
+
+}
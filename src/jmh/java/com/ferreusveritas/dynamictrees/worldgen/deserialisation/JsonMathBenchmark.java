@@ -0,0 +1,82 @@
+package com.ferreusveritas.dynamictrees.worldgen.deserialisation;
+
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating {@link JsonMath} expressions through the interpreted operator tree against the compiled form
+ * used by biome database selectors, over a range of noise values as the density selector sees them.
+ *
+ * <p>{@code default_density} is the density selector of the bundled default world gen database. The others are
+ * shaped like the chance and density selectors of add-on datapacks, including a constant sub-expression.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonMathBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"default_density", "scaled_density", "radius_chance"})
+    public String expression;
+
+    private JsonMath jsonMath;
+    private final float[] noise = new float[SAMPLES];
+    private final Random random = new Random(1234L);
+
+    @Setup
+    public void setup() {
+        this.jsonMath = new JsonMath(new JsonParser().parse(getExpression(this.expression)));
+        for (int i = 0; i < SAMPLES; i++) {
+            this.noise[i] = this.random.nextFloat() * 2 - 1;
+        }
+    }
+
+    private static String getExpression(String name) {
+        switch (name) {
+            case "default_density":
+                return "{ \"div\": [ \"noise\", 3.0 ] }";
+            case "scaled_density":
+                return "{ \"mul\": [ { \"add\": [ \"noise\", { \"div\": [ 1, 2 ] } ] }, 0.75 ] }";
+            case "radius_chance":
+                return "{ \"ifgt\": [ \"radius\", 6, { \"mul\": [ \"rand\", 0.5 ] }, { \"sub\": [ 1, { \"mul\": [ \"noise\", 0.25 ] } ] } ] }";
+            default:
+                throw new IllegalArgumentException("Unknown expression " + name);
+        }
+    }
+
+    @Benchmark
+    public float interpreted() {
+        float sum = 0;
+        for (float noise : this.noise) {
+            sum += this.jsonMath.rootOp.apply(new JsonMath.MathContext(noise, this.random));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float compiled() {
+        float sum = 0;
+        for (float noise : this.noise) {
+            sum += this.jsonMath.apply(this.random, noise);
+        }
+        return sum;
+    }
+
+}
@@ -9,6 +9,7 @@ import com.ferreusveritas.dynamictrees.blocks.leaves.DynamicLeavesBlock;
 import com.ferreusveritas.dynamictrees.blocks.rootyblocks.RootyBlock;
 import com.ferreusveritas.dynamictrees.init.DTClient;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.TwinkleNode;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeNetworkCache;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.SafeChunkBounds;
 import com.ferreusveritas.dynamictrees.util.SimpleVoxmap;
@@ -212,6 +213,10 @@ public class TreeHelper {
 
         switch (treePart.getTreePartType()) {
             case BRANCH:
+                final BlockPos cachedRootPos = findCachedRootNode(world, pos);
+                if (cachedRootPos != null) {
+                    return cachedRootPos;
+                }
                 MapSignal signal = treePart.analyse(state, world, pos, null, new MapSignal());// Analyze entire tree network to find root node
                 if (signal.foundRoot) {
                     return signal.root;
@@ -226,6 +231,27 @@ public class TreeHelper {
         return BlockPos.ZERO;
     }
 
+    /**
+     * Finds the root node of a tree from the {@link TreeNetworkCache} without mapping the branch network.
+     *
+     * @param world The world
+     * @param pos   The position of a branch
+     * @return The position of the root node of the tree, or {@code null} if the branch is not part of a cached tree.
+     */
+    @Nullable
+    private static BlockPos findCachedRootNode(World world, BlockPos pos) {
+        final TreeNetworkCache cache = TreeNetworkCache.get(world);
+        if (cache == null) {
+            return null;
+        }
+
+        final BlockPos rootPos = cache.findRoot(pos);
+        if (rootPos == null || !isRooty(world.getBlockState(rootPos))) {
+            return null;
+        }
+        return rootPos;
+    }
+
     /**
      * Sets a custom rooty block decay (what dirt it becomes when the tree is gone) algorithm for mods that have special
      * requirements.
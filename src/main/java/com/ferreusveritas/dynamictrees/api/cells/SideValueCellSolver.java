@@ -0,0 +1,31 @@
+package com.ferreusveritas.dynamictrees.api.cells;
+
+import net.minecraft.util.Direction;
+
+/**
+ * A {@link CellSolver} whose solution only depends on the value each of the 6 surrounding cells presents to the center
+ * cell. It can therefore be solved straight from those values, without gathering an array of cells.
+ */
+public interface SideValueCellSolver extends CellSolver {
+
+    /**
+     * Solves the center cell from the values the surrounding cells present to it, that is the value returned by {@link
+     * Cell#getValueFromSide(Direction)} of the cell on each side for the opposite side.
+     *
+     * @return the calculated solution for the center cell.
+     */
+    int solve(int down, int up, int north, int south, int west, int east);
+
+    @Override
+    default int solve(Cell[] cells) {
+        return this.solve(
+                cells[Direction.DOWN.ordinal()].getValueFromSide(Direction.UP),
+                cells[Direction.UP.ordinal()].getValueFromSide(Direction.DOWN),
+                cells[Direction.NORTH.ordinal()].getValueFromSide(Direction.SOUTH),
+                cells[Direction.SOUTH.ordinal()].getValueFromSide(Direction.NORTH),
+                cells[Direction.WEST.ordinal()].getValueFromSide(Direction.EAST),
+                cells[Direction.EAST.ordinal()].getValueFromSide(Direction.WEST)
+        );
+    }
+
+}
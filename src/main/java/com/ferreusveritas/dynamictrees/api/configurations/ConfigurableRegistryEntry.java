@@ -55,6 +55,10 @@ public abstract class ConfigurableRegistryEntry<T extends ConfigurableRegistryEn
      */
     @SuppressWarnings("unchecked")
     protected final T register(final ConfigurationProperty<?>... properties) {
+        // Give out slots in registration order, so properties used together get nearby slots.
+        for (ConfigurationProperty<?> property : properties) {
+            property.getSlot();
+        }
         this.properties.addAll(Arrays.asList(properties));
         return (T) this;
     }
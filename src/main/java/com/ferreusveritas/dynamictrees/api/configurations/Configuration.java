@@ -78,11 +78,11 @@ public abstract class Configuration<T extends Configuration<T, C>, C extends Con
      */
     @Nonnull
     public <V> V get(ConfigurationProperty<V> property) {
-        Optional<V> optionalProperty = getAsOptional(property);
+        final V value = this.getValue(property);
 
-        if (optionalProperty.isPresent())
-            return optionalProperty.get();
-         else {
+        if (value != null) {
+            return value;
+        } else {
             final CrashReport crashReport = CrashReport.forThrowable(new IllegalStateException(),
                     "Property '" + property.getKey() + "' from '" + this.configurable + "' is Null.");
             crashReport.addCategory("Getting property from a configuration");
@@ -99,14 +99,7 @@ public abstract class Configuration<T extends Configuration<T, C>, C extends Con
      * @throws ReportedException If the property did not exist.
      */
     public <V> Optional<V> getAsOptional(ConfigurationProperty<V> property) {
-        if (!this.has(property)) {
-            final CrashReport crashReport = CrashReport.forThrowable(new IllegalStateException(), "Tried to obtain " +
-                    "property '" + property.getKey() + "' from '" + this.configurable + "' that did not exist.");
-            crashReport.addCategory("Getting property from a configuration");
-            throw new ReportedException(crashReport);
-        }
-
-        return Optional.ofNullable(this.properties.get(property));
+        return Optional.ofNullable(this.getValue(property));
     }
 
     /**
@@ -120,7 +113,26 @@ public abstract class Configuration<T extends Configuration<T, C>, C extends Con
      * @return  The property's value or the invalidDefault if the validator failed.
      */
     public <V> V getOrInvalidDefault(ConfigurationProperty<V> property, Predicate<V> validator, V invalidDefault) {
-        return this.getAsOptional(property).filter(validator).orElse(invalidDefault);
+        final V value = this.getValue(property);
+        return value != null && validator.test(value) ? value : invalidDefault;
+    }
+
+    /**
+     * @param property The {@link ConfigurationProperty} to get.
+     * @param <V>      The type of the property's value.
+     * @return The property's value, which may be {@code null}.
+     * @throws ReportedException If the property did not exist.
+     */
+    @Nullable
+    private <V> V getValue(ConfigurationProperty<V> property) {
+        if (!this.has(property)) {
+            final CrashReport crashReport = CrashReport.forThrowable(new IllegalStateException(), "Tried to obtain " +
+                    "property '" + property.getKey() + "' from '" + this.configurable + "' that did not exist.");
+            crashReport.addCategory("Getting property from a configuration");
+            throw new ReportedException(crashReport);
+        }
+
+        return this.properties.get(property);
     }
 
     /**
@@ -9,8 +9,11 @@ import net.minecraft.block.Block;
 import net.minecraft.item.Item;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class for custom configuration properties that can be deserialised from a {@link JsonObject} using {@link
@@ -22,11 +25,18 @@ import java.util.Optional;
  */
 public class ConfigurationProperty<T> {
 
+    /**
+     * The slots assigned to properties, shared by properties which are {@link #equals(Object) equal}.
+     */
+    private static final Map<ConfigurationProperty<?>, Integer> SLOTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
     public static final ConfigurationProperty<Object> NULL =
             new ConfigurationProperty<>("null", Object.class);
 
     private final String key;
     private final Class<T> type;
+    private int slot = -1;
 
     protected ConfigurationProperty(String key, Class<T> type) {
         this.key = key;
@@ -41,6 +51,21 @@ public class ConfigurationProperty<T> {
         return type;
     }
 
+    /**
+     * Gets the index of this property in the values of compiled {@link Properties}. Slots are given out when properties
+     * are first registered to a {@link Configurable}, or otherwise when first used.
+     *
+     * @return The slot of this property.
+     */
+    public int getSlot() {
+        int slot = this.slot;
+        if (slot < 0) {
+            slot = SLOTS.computeIfAbsent(this, property -> NEXT_SLOT.getAndIncrement());
+            this.slot = slot;
+        }
+        return slot;
+    }
+
     /**
      * Gets a {@link Result} for the property's value from the given {@link JsonObject}, or null if it
      * was not found.
@@ -3,20 +3,35 @@ package com.ferreusveritas.dynamictrees.api.configurations;
 import com.google.common.collect.Maps;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Optional;
 
 /**
+ * Holds the values of {@link ConfigurationProperty} objects.
+ *
+ * <p>Values are compiled into an array indexed by {@link ConfigurationProperty#getSlot() property slots} on the first
+ * read after they last changed, so reading properties of finished configurations, which happens in every growth pulse
+ * and generated tree, involves no hashing.</p>
+ *
  * @author Harley O'Connor
  */
 public final class Properties implements PropertiesAccessor {
 
     public static final Properties NONE = new Properties();
 
+    /**
+     * Marks slots of properties that haven't been set in {@link #compiled}, as {@code null} is a valid value.
+     */
+    private static final Object ABSENT = new Object();
+
     private final Map<ConfigurationProperty<?>, Object> map = Maps.newHashMap();
 
+    @Nullable
+    private volatile Object[] compiled;
+
     public <V> void put(ConfigurationProperty<V> property, V value) {
         this.map.put(property, value);
+        this.compiled = null;
     }
 
     public void putAll(PropertiesAccessor properties) {
@@ -26,12 +41,41 @@ public final class Properties implements PropertiesAccessor {
     @SuppressWarnings("unchecked")
     @Nullable
     public <V> V get(ConfigurationProperty<V> property) {
-        return (V) this.map.get(property);
+        final Object[] values = this.getCompiled();
+        final int slot = property.getSlot();
+        if (slot >= values.length) {
+            return null;
+        }
+        final Object value = values[slot];
+        return value == ABSENT ? null : (V) value;
     }
 
     @Override
     public boolean has(ConfigurationProperty<?> property) {
-        return this.map.containsKey(property);
+        final Object[] values = this.getCompiled();
+        final int slot = property.getSlot();
+        return slot < values.length && values[slot] != ABSENT;
+    }
+
+    private Object[] getCompiled() {
+        Object[] values = this.compiled;
+        if (values == null) {
+            values = this.compile();
+            this.compiled = values;
+        }
+        return values;
+    }
+
+    private Object[] compile() {
+        int length = 0;
+        for (ConfigurationProperty<?> property : this.map.keySet()) {
+            length = Math.max(length, property.getSlot() + 1);
+        }
+
+        final Object[] values = new Object[length];
+        Arrays.fill(values, ABSENT);
+        this.map.forEach((property, value) -> values[property.getSlot()] = value);
+        return values;
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.ferreusveritas.dynamictrees.api.network;
 
 import com.ferreusveritas.dynamictrees.systems.nodemappers.CollectorNode;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
@@ -9,10 +11,25 @@ import net.minecraft.world.IWorld;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class MapSignal {
 
+    /**
+     * Whether new signals walk networks with the {@link NetworkWalker} rather than recursively. Set from the config.
+     */
+    private static boolean iterativeByDefault = true;
+
+    /**
+     * The inspectors run on each node. Should only be changed through {@link #addInspector}, {@link #removeInspector}
+     * and {@link #clearInspectors}, so the {@link #compileInspectors compiled} copy is kept up to date.
+     */
     protected ArrayList<NodeInspector> nodeInspectors;
+    @Nullable
+    private NodeInspector[] compiledInspectors;
+    @Nullable
+    private LongSet visited;
 
     public BlockPos root;
     public int depth;
@@ -20,6 +37,11 @@ public class MapSignal {
     public boolean multiroot = false;
     public boolean destroyLoopedNodes = true;
     public boolean trackVisited = false;
+    /**
+     * If true, branch networks are explored by the {@link NetworkWalker} instead of by recursive calls to {@link
+     * com.ferreusveritas.dynamictrees.api.treedata.TreePart#analyse}.
+     */
+    public boolean iterative = iterativeByDefault;
 
     public Direction localRootDir;
 
@@ -37,7 +59,36 @@ public class MapSignal {
         nodeInspectors.addAll(Arrays.asList(nis));
     }
 
+    public static void setIterativeByDefault(boolean iterative) {
+        iterativeByDefault = iterative;
+    }
+
+    /**
+     * Copies the inspectors into an array that {@link #run} and {@link #returnRun} iterate over in {@link #iterative}
+     * mode. Called by the {@link NetworkWalker} before each walk, and by {@link #run} and {@link #returnRun} when
+     * inspectors have been changed since, so analyses that don't start from a walk still run every inspector.
+     */
+    public void compileInspectors() {
+        if (compiledInspectors == null || compiledInspectors.length != nodeInspectors.size()) {
+            compiledInspectors = new NodeInspector[nodeInspectors.size()];
+        }
+        nodeInspectors.toArray(compiledInspectors);
+    }
+
+    private NodeInspector[] getCompiledInspectors() {
+        if (compiledInspectors == null) {
+            compileInspectors();
+        }
+        return compiledInspectors;
+    }
+
     public boolean run(BlockState blockState, IWorld world, BlockPos pos, @Nullable Direction fromDir) {
+        if (iterative) {
+            for (NodeInspector inspector : getCompiledInspectors()) {
+                inspector.run(blockState, world, pos, fromDir);
+            }
+            return false;
+        }
         for (NodeInspector inspector : nodeInspectors) {
             inspector.run(blockState, world, pos, fromDir);
         }
@@ -45,25 +96,61 @@ public class MapSignal {
     }
 
     public boolean returnRun(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
+        if (iterative) {
+            for (NodeInspector inspector : getCompiledInspectors()) {
+                inspector.returnRun(blockState, world, pos, fromDir);
+            }
+            return false;
+        }
         for (NodeInspector inspector : nodeInspectors) {
             inspector.returnRun(blockState, world, pos, fromDir);
         }
         return false;
     }
 
-    public ArrayList<NodeInspector> getInspectors() {
-        return nodeInspectors;
+    /**
+     * @return An unmodifiable view of the inspectors. Use {@link #addInspector}, {@link #removeInspector} and {@link
+     * #clearInspectors} to change them.
+     */
+    public List<NodeInspector> getInspectors() {
+        return Collections.unmodifiableList(nodeInspectors);
+    }
+
+    public void addInspector(NodeInspector inspector) {
+        nodeInspectors.add(inspector);
+        compiledInspectors = null;
+    }
+
+    public boolean removeInspector(NodeInspector inspector) {
+        compiledInspectors = null;
+        return nodeInspectors.remove(inspector);
     }
 
+    public void clearInspectors() {
+        nodeInspectors.clear();
+        compiledInspectors = null;
+    }
+
+    /**
+     * Checks whether the given node has already been visited. If the first inspector is a {@link CollectorNode} its
+     * collected positions are used, as it marks each node it is run on. Otherwise the signal tracks visited nodes in
+     * its own packed set, marking the given node as visited.
+     *
+     * @return {@code true} if the node at the given position has already been visited.
+     */
     public boolean doTrackingVisited(BlockPos pos) {
         if (nodeInspectors.size() > 0) {
             final NodeInspector inspector = nodeInspectors.get(0);
 
             if (inspector instanceof CollectorNode) {
-                return ((CollectorNode) inspector).contains(pos);
+                return ((CollectorNode) inspector).contains(pos.asLong());
             }
         }
-        return false;
+
+        if (visited == null) {
+            visited = new LongOpenHashSet();
+        }
+        return !visited.add(pos.asLong());
     }
 
 }
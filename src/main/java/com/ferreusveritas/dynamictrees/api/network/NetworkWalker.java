@@ -0,0 +1,161 @@
+package com.ferreusveritas.dynamictrees.api.network;
+
+import com.ferreusveritas.dynamictrees.DynamicTrees;
+import com.ferreusveritas.dynamictrees.api.TreeHelper;
+import com.ferreusveritas.dynamictrees.api.treedata.TreePart;
+import com.ferreusveritas.dynamictrees.blocks.branches.BasicBranchBlock;
+import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
+import com.ferreusveritas.dynamictrees.util.CoordUtils;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+
+import javax.annotation.Nullable;
+
+/**
+ * An iterative implementation of {@link BasicBranchBlock#analyse(BlockState, IWorld, BlockPos, Direction, MapSignal)},
+ * used when {@link MapSignal#iterative} is set.
+ * <p>
+ * The network is explored with an explicit stack of frames instead of recursion. Neighbours are probed through a
+ * single reusable {@link BlockPos.Mutable}, so the only position allocated per node is the immutable one handed to the
+ * {@link NodeInspector}s, which are allowed to keep it. The inspectors are run from the array compiled by {@link
+ * MapSignal#compileInspectors()}.
+ * <p>
+ * Inspectors are run in exactly the same order and with the same arguments as the recursive walk. Branches using
+ * {@link BasicBranchBlock}'s own analyse are walked iteratively; any other {@link TreePart}, including branches that
+ * override it, is delegated to its own {@link TreePart#analyse(BlockState, IWorld, BlockPos, Direction, MapSignal)}.
+ */
+public final class NetworkWalker {
+
+    private static final Direction[] DIRECTIONS = CoordUtils.DIRECTIONS;
+
+    /**
+     * Whether a {@link TreePart} class inherits {@link BasicBranchBlock}'s analyse, and so can be walked iteratively.
+     */
+    private static final ClassValue<Boolean> WALKABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!BasicBranchBlock.class.isAssignableFrom(type)) {
+                return false;
+            }
+            try {
+                return type.getMethod("analyse", BlockState.class, IWorld.class, BlockPos.class, Direction.class,
+                        MapSignal.class).getDeclaringClass() == BasicBranchBlock.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final IWorld world;
+    private final MapSignal signal;
+    private final BlockPos.Mutable probePos = new BlockPos.Mutable();
+
+    private Frame[] frames = new Frame[32];
+    private int size = 0;
+
+    private NetworkWalker(IWorld world, MapSignal signal) {
+        this.world = world;
+        this.signal = signal;
+    }
+
+    /**
+     * Walks the network starting from the given branch.
+     *
+     * @return The given {@link MapSignal}.
+     */
+    public static MapSignal walk(BasicBranchBlock branch, BlockState state, IWorld world, BlockPos pos,
+                                 @Nullable Direction fromDir, MapSignal signal) {
+        signal.compileInspectors();
+        final NetworkWalker walker = new NetworkWalker(world, signal);
+        walker.enter(branch, state, pos, fromDir);
+        walker.run();
+        return signal;
+    }
+
+    private void run() {
+        while (size > 0) {
+            final Frame frame = frames[size - 1];
+
+            // This should only be true for the originating block when the root node is found.
+            if (frame.lastDir != null) {
+                if (signal.foundRoot && signal.localRootDir == null && frame.fromDir == null) {
+                    signal.localRootDir = frame.lastDir;
+                }
+                frame.lastDir = null;
+            }
+
+            if (frame.nextDir < DIRECTIONS.length) {
+                final Direction dir = DIRECTIONS[frame.nextDir++];
+                if (dir == frame.fromDir) {
+                    continue; // Don't count where the signal originated from.
+                }
+
+                probePos.setWithOffset(frame.pos, dir);
+                final BlockState deltaState = world.getBlockState(probePos);
+                final TreePart treePart = TreeHelper.getTreePart(deltaState);
+
+                if (treePart.shouldAnalyse(deltaState, world, probePos)) {
+                    frame.lastDir = dir;
+                    final BlockPos deltaPos = probePos.immutable();
+                    if (WALKABLE.get(treePart.getClass())) {
+                        enter((BasicBranchBlock) treePart, deltaState, deltaPos, dir.getOpposite());
+                    } else {
+                        treePart.analyse(deltaState, world, deltaPos, dir.getOpposite(), signal);
+                    }
+                }
+            } else {
+                signal.returnRun(frame.state, world, frame.pos, frame.fromDir);
+                signal.depth--;
+                frames[--size] = null;
+            }
+        }
+    }
+
+    private void enter(BasicBranchBlock branch, BlockState state, BlockPos pos, @Nullable Direction fromDir) {
+        if (signal.overflow || (signal.trackVisited && signal.doTrackingVisited(pos))) {
+            return;
+        }
+
+        // Prevents going too deep into large networks, or worse, being caught in a network loop.
+        if (signal.depth++ < branch.getMaxSignalDepth()) {
+            signal.run(state, world, pos, fromDir);
+            push(new Frame(pos, state, fromDir));
+        } else {
+            final BlockState currentState = world.getBlockState(pos);
+            if (signal.destroyLoopedNodes && currentState.getBlock() instanceof BranchBlock) {
+                // Destroy one of the offending nodes.
+                ((BranchBlock) currentState.getBlock()).breakDeliberate(world, pos, DynamicTrees.DestroyMode.OVERFLOW);
+            }
+            signal.overflow = true;
+            signal.depth--;
+        }
+    }
+
+    private void push(Frame frame) {
+        if (size == frames.length) {
+            final Frame[] grown = new Frame[size * 2];
+            System.arraycopy(frames, 0, grown, 0, size);
+            frames = grown;
+        }
+        frames[size++] = frame;
+    }
+
+    private static final class Frame {
+        private final BlockPos pos;
+        private final BlockState state;
+        @Nullable
+        private final Direction fromDir;
+        private int nextDir = 0;
+        @Nullable
+        private Direction lastDir = null;
+
+        private Frame(BlockPos pos, BlockState state, @Nullable Direction fromDir) {
+            this.pos = pos;
+            this.state = state;
+            this.fromDir = fromDir;
+        }
+    }
+
+}
@@ -15,4 +15,31 @@ public interface PoissonDiscProvider {
 
     void unloadChunkPoissonData(int chunkX, int chunkY, int chunkZ);
 
+    /**
+     * @return {@code true} if the discs of the given chunk have already been generated.
+     */
+    default boolean isChunkGenerated(int chunkX, int chunkY, int chunkZ) {
+        return false;
+    }
+
+    /**
+     * @return {@code true} if disc data is kept in chunk NBT through {@link #getChunkPoissonData(int, int, int)} and
+     * {@link #setChunkPoissonData(int, int, int, byte[])}; {@code false} if the provider stores it elsewhere.
+     */
+    default boolean usesChunkData() {
+        return true;
+    }
+
+    /**
+     * Called when the level is saved.
+     */
+    default void save() {
+    }
+
+    /**
+     * Called when the level is unloaded.
+     */
+    default void unload() {
+    }
+
 }
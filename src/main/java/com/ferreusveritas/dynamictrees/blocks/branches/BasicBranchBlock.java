@@ -5,6 +5,7 @@ import com.ferreusveritas.dynamictrees.api.TreeHelper;
 import com.ferreusveritas.dynamictrees.api.cells.Cell;
 import com.ferreusveritas.dynamictrees.api.cells.CellNull;
 import com.ferreusveritas.dynamictrees.api.network.MapSignal;
+import com.ferreusveritas.dynamictrees.api.network.NetworkWalker;
 import com.ferreusveritas.dynamictrees.api.treedata.TreePart;
 import com.ferreusveritas.dynamictrees.blocks.leaves.DynamicLeavesBlock;
 import com.ferreusveritas.dynamictrees.blocks.leaves.LeavesProperties;
@@ -15,6 +16,7 @@ import com.ferreusveritas.dynamictrees.systems.GrowSignal;
 import com.ferreusveritas.dynamictrees.trees.Family;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.CoordUtils;
+import com.ferreusveritas.dynamictrees.util.VoxelShapeCache;
 import net.minecraft.block.AbstractBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
@@ -55,6 +57,12 @@ public class BasicBranchBlock extends BranchBlock implements IWaterLoggable {
     protected static final IntegerProperty RADIUS = IntegerProperty.create("radius", 1, MAX_RADIUS);
     public static final BooleanProperty WATERLOGGED = BlockStateProperties.WATERLOGGED;
 
+    /**
+     * Caches shapes by the radius of the branch and the clamped radii of its six sides, see {@link
+     * #createShape(long)}.
+     */
+    private static final VoxelShapeCache SHAPES = new VoxelShapeCache(BasicBranchBlock::createShape);
+
     /**
      * Stores a cache of the {@link BlockState}s for rapid lookup. Created by {@link
      * #createBranchStates(IntegerProperty, int)}.
@@ -389,11 +397,26 @@ public class BasicBranchBlock extends BranchBlock implements IWaterLoggable {
     @Override
     public VoxelShape getShape(BlockState state, IBlockReader worldIn, BlockPos pos, ISelectionContext context) {
         int thisRadiusInt = getRadius(state);
-        double radius = thisRadiusInt / 16.0;
+        long key = thisRadiusInt;
+
+        for (Direction dir : CoordUtils.DIRECTIONS) {
+            int sideRadiusInt = Math.min(getSideConnectionRadius(worldIn, pos, thisRadiusInt, dir), thisRadiusInt);
+            key |= (long) Math.max(sideRadiusInt, 0) << (5 + dir.ordinal() * 5);
+        }
+
+        return SHAPES.get(key);
+    }
+
+    /**
+     * Creates the shape of a branch from a key packing its radius into the lowest 5 bits, followed by the radius of
+     * each side in 5 bits in {@link Direction} order. Branch radii are always below 32.
+     */
+    private static VoxelShape createShape(long key) {
+        double radius = (key & 31) / 16.0;
         VoxelShape core = VoxelShapes.box(0.5 - radius, 0.5 - radius, 0.5 - radius, 0.5 + radius, 0.5 + radius, 0.5 + radius);
 
         for (Direction dir : Direction.values()) {
-            int sideRadiusInt = Math.min(getSideConnectionRadius(worldIn, pos, thisRadiusInt, dir), thisRadiusInt);
+            int sideRadiusInt = (int) (key >>> (5 + dir.ordinal() * 5)) & 31;
             double sideRadius = sideRadiusInt / 16.0f;
             if (sideRadius > 0.0f) {
                 double gap = 0.5f - sideRadius;
@@ -424,7 +447,7 @@ public class BasicBranchBlock extends BranchBlock implements IWaterLoggable {
     // NODE ANALYSIS
     ///////////////////////////////////////////
 
-    protected int getMaxSignalDepth() {
+    public int getMaxSignalDepth() {
         return getFamily().getMaxSignalDepth();
     }
 
@@ -444,18 +467,26 @@ public class BasicBranchBlock extends BranchBlock implements IWaterLoggable {
      * The difference being that in an iterative design I would need to maintain a stack array holding all of the values
      * and push and pop them manually or use a stack index.  This is messy and not something I would want to maintain
      * for practically non-existent gains. Java does a pretty good job of managing the stack on its own.
+     * <p>
+     * That said, the recursion does allocate a position for every neighbour probed. Signals in {@link
+     * MapSignal#iterative} mode are therefore handed to the {@link NetworkWalker}, which probes through a single
+     * mutable position and runs the same inspectors in the same order.
      */
     @Override
     public MapSignal analyse(BlockState blockState, IWorld world, BlockPos pos, @Nullable Direction fromDir, MapSignal signal) {
         // Note: fromDir will be null in the origin node
 
+        if (signal.iterative) {
+            return NetworkWalker.walk(this, blockState, world, pos, fromDir, signal);
+        }
+
         if (signal.overflow || (signal.trackVisited && signal.doTrackingVisited(pos))) {
             return signal;
         }
 
         if (signal.depth++ < getMaxSignalDepth()) {// Prevents going too deep into large networks, or worse, being caught in a network loop
             signal.run(blockState, world, pos, fromDir);// Run the inspectors of choice
-            for (Direction dir : Direction.values()) {// Spread signal in various directions
+            for (Direction dir : CoordUtils.DIRECTIONS) {// Spread signal in various directions
                 if (dir != fromDir) {// don't count where the signal originated from
                     BlockPos deltaPos = pos.relative(dir);
 
@@ -14,9 +14,10 @@ import com.ferreusveritas.dynamictrees.entities.FallingTreeEntity.DestroyType;
 import com.ferreusveritas.dynamictrees.event.FutureBreak;
 import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.DestroyerNode;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.FellingNode;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.NetVolumeNode;
-import com.ferreusveritas.dynamictrees.systems.nodemappers.SpeciesNode;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.StateNode;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeNetworkCache;
 import com.ferreusveritas.dynamictrees.trees.Family;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.BlockBounds;
@@ -359,23 +360,48 @@ public abstract class BranchBlock extends BlockWithDynamicHardness implements Tr
     public BranchDestructionData destroyBranchFromNode(World world, BlockPos cutPos, Direction toolDir,
                                                        boolean wholeTree, @Nullable final LivingEntity entity) {
         final BlockState blockState = world.getBlockState(cutPos);
-        final SpeciesNode speciesNode = new SpeciesNode();
-        final MapSignal signal = analyse(blockState, world, cutPos, null,
-                new MapSignal(speciesNode)); // Analyze entire tree network to find root node and species.
-        final Species species = speciesNode.getSpecies(); // Get the species from the root node.
+        final TreeNetworkCache cache = TreeNetworkCache.get(world);
+        final TreeNetworkCache.CachedTree cachedTree = cache == null ? null : cache.getTreeContaining(cutPos);
+
+        // Map the network in a single walk. The branches are recorded with their states so that the rest of the work
+        // can be done in bulk without walking the network again.
+        final FellingNode fellingNode = new FellingNode();
+        final Species species;
+        final Direction localRootDir;
+        final List<FellingNode.Node> nodes;
+        final Species rootySpecies = cachedTree == null ? Species.NULL_SPECIES :
+                getRootySpecies(world, cachedTree.getSnapshot().getRootPos());
+        if (rootySpecies.isValid() && rootySpecies == cachedTree.getSpecies()) {
+            // The network is cached so the root node is already known, only map beyond the break point. The species is
+            // read from the rooty block again in case it was changed since the tree was cached.
+            species = rootySpecies;
+            localRootDir = cachedTree.getRootDirection(cutPos);
+            this.analyse(blockState, world, cutPos, wholeTree ? null : localRootDir, new MapSignal(fellingNode));
+            nodes = fellingNode.getNodes(null);
+        } else {
+            // Analyze entire tree network to find root node and species, then keep the part beyond the break point.
+            final MapSignal signal = this.analyse(blockState, world, cutPos, null, new MapSignal(fellingNode));
+            species = fellingNode.getSpecies();
+            localRootDir = signal.localRootDir;
+            nodes = fellingNode.getNodes(wholeTree ? null : localRootDir);
+        }
 
-        // Analyze only part of the tree beyond the break point and map out the extended block states.
+        // Map out the extended block states.
         // We can't destroy the branches during this step since we need accurate extended block states that include connections.
-        StateNode stateMapper = new StateNode(cutPos);
-        this.analyse(blockState, world, cutPos, wholeTree ? null : signal.localRootDir, new MapSignal(stateMapper));
+        final StateNode stateMapper = new StateNode(cutPos);
+        for (final FellingNode.Node node : nodes) {
+            stateMapper.run(node.state, world, node.pos, node.fromDir);
+        }
 
-        // Analyze only part of the tree beyond the break point and calculate it's volume, then destroy the branches.
+        // Calculate the volume of the part of the tree beyond the break point, then destroy the branches.
         final NetVolumeNode volumeSum = new NetVolumeNode();
         final DestroyerNode destroyer =
                 new DestroyerNode(species).setPlayer(entity instanceof PlayerEntity ? (PlayerEntity) entity : null);
         destroyMode = DynamicTrees.DestroyMode.HARVEST;
-        this.analyse(blockState, world, cutPos, wholeTree ? null : signal.localRootDir,
-                new MapSignal(volumeSum, destroyer));
+        for (final FellingNode.Node node : nodes) {
+            volumeSum.run(node.state, world, node.pos, node.fromDir);
+            destroyer.run(node.state, world, node.pos, node.fromDir);
+        }
         destroyMode = DynamicTrees.DestroyMode.SLOPPY;
 
         // Destroy all the leaves on the branch, store them in a map and convert endpoint coordinates from absolute to relative.
@@ -393,7 +419,7 @@ public abstract class BranchBlock extends BlockWithDynamicHardness implements Tr
             trunkHeight++;
         }
 
-        Direction cutDir = signal.localRootDir;
+        Direction cutDir = localRootDir;
         if (cutDir == null) {
             cutDir = Direction.DOWN;
         }
@@ -402,6 +428,16 @@ public abstract class BranchBlock extends BlockWithDynamicHardness implements Tr
                 leavesDropsList, endPoints, volumeSum.getVolume(), cutPos, cutDir, toolDir, trunkHeight);
     }
 
+    /**
+     * @return The {@link Species} of the rooty block at the given {@link BlockPos}, or {@link Species#NULL_SPECIES} if
+     * there is no rooty block there.
+     */
+    private static Species getRootySpecies(World world, BlockPos rootPos) {
+        final BlockState rootyState = world.getBlockState(rootPos);
+        return TreeHelper.isRooty(rootyState) ?
+                TreeHelper.getRooty(rootyState).getSpecies(rootyState, world, rootPos) : Species.NULL_SPECIES;
+    }
+
     /**
      * Performs rot action. Default implementation simply breaks the block.
      *
@@ -659,8 +695,22 @@ public abstract class BranchBlock extends BlockWithDynamicHardness implements Tr
         return stack.getItem() instanceof AxeItem || stack.getItem().getToolTypes(stack).contains(ToolType.AXE);
     }
 
+    @Override
+    public void onPlace(BlockState state, World world, BlockPos pos, BlockState oldState, boolean isMoving) {
+        super.onPlace(state, world, pos, oldState, isMoving);
+
+        // Radius changes of existing branches are handled by onRemove.
+        if (!TreeHelper.isBranch(oldState)) {
+            TreeNetworkCache.onBranchChanged(world, pos, state);
+            DirtyLeafScheduler.markNeighbours(world, pos);
+        }
+    }
+
     @Override
     public void onRemove(BlockState state, World world, BlockPos pos, BlockState newState, boolean flag) {
+        TreeNetworkCache.onBranchChanged(world, pos, newState);
+        DirtyLeafScheduler.markNeighbours(world, pos);
+
         if (world.isClientSide || destroyMode != DynamicTrees.DestroyMode.SLOPPY) {
             super.onRemove(state, world, pos, newState, flag);
             return;
@@ -0,0 +1,138 @@
+package com.ferreusveritas.dynamictrees.blocks.branches;
+
+import com.ferreusveritas.dynamictrees.util.CoordUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IBlockReader;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the muse each {@link TrunkShellBlock} resolves to, so that shape, hardness and sound queries of shells around
+ * thick trunks don't walk through layers of shells every time.
+ *
+ * <p>Muses are kept in a map per chunk, so they can be dropped when the chunk unloads. A cached muse is only returned
+ * while the shell still has the same state and the muse block is still in the same state, so any change to either is
+ * picked up immediately. Muses around a {@link ThickBranchBlock} are also discarded whenever it is replaced, which
+ * includes changing its radius, as that may change the shells in between.</p>
+ *
+ * <p>Only muses of server levels are cached.</p>
+ */
+public final class ShellMuseCache {
+
+    /**
+     * How far from a trunk its shells may be, which allows for two layers of shells.
+     */
+    private static final int SHELL_REACH = 2;
+
+    private static final Map<RegistryKey<World>, ShellMuseCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Entry>> chunks = new Long2ObjectOpenHashMap<>();
+
+    private static final class Entry {
+        private final BlockState shellState;
+        private final TrunkShellBlock.ShellMuse muse;
+
+        private Entry(BlockState shellState, TrunkShellBlock.ShellMuse muse) {
+            this.shellState = shellState;
+            this.muse = muse;
+        }
+    }
+
+    private ShellMuseCache() {
+    }
+
+    /**
+     * @return The {@link ShellMuseCache} for the given reader, or {@code null} if it isn't a server level.
+     */
+    @Nullable
+    static ShellMuseCache get(IBlockReader access) {
+        if (!(access instanceof World) || ((World) access).isClientSide) {
+            return null;
+        }
+        return CACHES.computeIfAbsent(((World) access).dimension(), key -> new ShellMuseCache());
+    }
+
+    /**
+     * @return The cached muse of the shell at the given position, or {@code null} if it isn't cached or is no longer
+     * valid.
+     */
+    @Nullable
+    synchronized TrunkShellBlock.ShellMuse get(IBlockReader access, BlockPos pos, BlockState shellState) {
+        final Long2ObjectOpenHashMap<Entry> entries = this.chunks.get(chunkKey(pos));
+        if (entries == null) {
+            return null;
+        }
+
+        final long packedPos = pos.asLong();
+        final Entry entry = entries.get(packedPos);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.shellState != shellState || CoordUtils.getStateSafe(access, entry.muse.pos) != entry.muse.state) {
+            entries.remove(packedPos);
+            return null;
+        }
+        return entry.muse;
+    }
+
+    synchronized void put(BlockPos pos, BlockState shellState, TrunkShellBlock.ShellMuse muse) {
+        this.chunks.computeIfAbsent(chunkKey(pos), key -> new Long2ObjectOpenHashMap<>())
+                .put(pos.asLong(), new Entry(shellState, muse));
+    }
+
+    /**
+     * Discards the cached muses of any shells around the trunk at the given position. Called when a thick branch is
+     * replaced, including when its radius changes.
+     */
+    public static void invalidateAround(World world, BlockPos pos) {
+        final ShellMuseCache cache = world.isClientSide ? null : CACHES.get(world.dimension());
+        if (cache != null) {
+            cache.invalidateAround(pos);
+        }
+    }
+
+    private synchronized void invalidateAround(BlockPos pos) {
+        final BlockPos.Mutable shellPos = new BlockPos.Mutable();
+        for (int dz = -SHELL_REACH; dz <= SHELL_REACH; dz++) {
+            for (int dx = -SHELL_REACH; dx <= SHELL_REACH; dx++) {
+                shellPos.setWithOffset(pos, dx, 0, dz);
+                final Long2ObjectOpenHashMap<Entry> entries = this.chunks.get(chunkKey(shellPos));
+                if (entries != null) {
+                    entries.remove(shellPos.asLong());
+                }
+            }
+        }
+    }
+
+    private static long chunkKey(BlockPos pos) {
+        return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    /**
+     * Discards the cached muses of the given chunk. Called when the chunk is unloaded.
+     */
+    public static void unloadChunk(World world, ChunkPos chunkPos) {
+        final ShellMuseCache cache = CACHES.get(world.dimension());
+        if (cache != null) {
+            synchronized (cache) {
+                cache.chunks.remove(chunkPos.toLong());
+            }
+        }
+    }
+
+    /**
+     * Discards all cached muses of the given world. Called when the world is unloaded.
+     */
+    public static void unloadWorld(World world) {
+        CACHES.remove(world.dimension());
+    }
+
+}
@@ -4,6 +4,7 @@ import com.ferreusveritas.dynamictrees.api.TreeHelper;
 import com.ferreusveritas.dynamictrees.trees.Family;
 import com.ferreusveritas.dynamictrees.util.CoordUtils;
 import com.ferreusveritas.dynamictrees.util.RootConnections;
+import com.ferreusveritas.dynamictrees.util.VoxelShapeCache;
 import net.minecraft.block.*;
 import net.minecraft.block.material.Material;
 import net.minecraft.entity.player.PlayerEntity;
@@ -43,6 +44,12 @@ public class SurfaceRootBlock extends Block implements IWaterLoggable {
 
     private final Family family;
 
+    /**
+     * Caches shapes by the radius of the root and the clamped radii of its connections. Kept per block as {@link
+     * #getRadialHeight(int)} may be overridden.
+     */
+    private final VoxelShapeCache shapes = new VoxelShapeCache(this::createShape);
+
     public SurfaceRootBlock(Family family) {
         this(Material.WOOD, family);
         registerDefaultState(defaultBlockState().setValue(WATERLOGGED, false));
@@ -159,20 +166,40 @@ public class SurfaceRootBlock extends Block implements IWaterLoggable {
     @Nonnull
     @Override
     public VoxelShape getShape(BlockState state, IBlockReader world, BlockPos pos, ISelectionContext context) {
-        boolean connectionMade = false;
         final int thisRadius = getRadius(state);
+        long key = thisRadius;
+
+        for (int i = 0; i < CoordUtils.HORIZONTALS.length; i++) {
+            final RootConnection conn = this.getSideConnectionRadius(world, pos, CoordUtils.HORIZONTALS[i]);
+
+            if (conn != null) {
+                // Connected sides are stored with a radius of at least 1, so 0 means there is no connection.
+                key |= (long) Math.max(MathHelper.clamp(conn.radius, 1, thisRadius), 1) << (5 + i * 5);
+            }
+        }
+
+        return this.shapes.get(key);
+    }
+
+    /**
+     * Creates the shape of a root from a key packing its radius into the lowest 5 bits, followed by the radius of the
+     * connection on each side in 5 bits in {@link CoordUtils#HORIZONTALS} order.
+     */
+    private VoxelShape createShape(long key) {
+        boolean connectionMade = false;
+        final int thisRadius = (int) (key & 31);
 
         VoxelShape shape = VoxelShapes.empty();
 
-        for (Direction dir : CoordUtils.HORIZONTALS) {
-            final RootConnection conn = this.getSideConnectionRadius(world, pos, dir);
+        for (int i = 0; i < CoordUtils.HORIZONTALS.length; i++) {
+            final Direction dir = CoordUtils.HORIZONTALS[i];
+            final int r = (int) (key >>> (5 + i * 5)) & 31;
 
-            if (conn == null) {
+            if (r == 0) {
                 continue;
             }
 
             connectionMade = true;
-            final int r = MathHelper.clamp(conn.radius, 1, thisRadius);
             final double radius = r / 16.0;
             final double radialHeight = getRadialHeight(r) / 16.0;
             final double gap = 0.5 - radius;
@@ -189,7 +216,7 @@ public class SurfaceRootBlock extends Block implements IWaterLoggable {
             shape = VoxelShapes.joinUnoptimized(shape, VoxelShapes.create(aabb), IBooleanFunction.OR);
         }
 
-        return shape;
+        return shape.optimize(); // Optimised once here, as the shape is cached.
     }
 
     private boolean isAirOrWater (BlockState state){
@@ -33,6 +33,17 @@ public class ThickBranchBlock extends BasicBranchBlock implements Musable {
 
     protected static final IntegerProperty RADIUS_DOUBLE = IntegerProperty.create("radius", 1, MAX_RADIUS_THICK); //39 ?
 
+    /**
+     * The column shapes of branches thicker than a block, indexed by radius.
+     */
+    private static final VoxelShape[] COLUMN_SHAPES = new VoxelShape[MAX_RADIUS_THICK + 1];
+
+    static {
+        for (int radius = MAX_RADIUS + 1; radius <= MAX_RADIUS_THICK; radius++) {
+            COLUMN_SHAPES[radius] = createColumnShape(radius);
+        }
+    }
+
     public ThickBranchBlock(ResourceLocation name, Material material) {
         this(name, Properties.of(material));
     }
@@ -70,6 +81,12 @@ public class ThickBranchBlock extends BasicBranchBlock implements Musable {
         return super.setRadius(world, pos, MAX_RADIUS, originDir, flags);
     }
 
+    @Override
+    public void onRemove(BlockState state, World world, BlockPos pos, BlockState newState, boolean isMoving) {
+        ShellMuseCache.invalidateAround(world, pos);
+        super.onRemove(state, world, pos, newState, isMoving);
+    }
+
     @Override
     public void neighborChanged(BlockState state, World worldIn, BlockPos pos, Block blockIn, BlockPos fromPos, boolean isMoving) {
         updateTrunkShells(worldIn, pos, getRadius(state), 6);
@@ -202,6 +219,10 @@ public class ThickBranchBlock extends BasicBranchBlock implements Musable {
             return super.getShape(state, blockReader, pos, context);
         }
 
+        return thisRadius < COLUMN_SHAPES.length ? COLUMN_SHAPES[thisRadius] : createColumnShape(thisRadius);
+    }
+
+    private static VoxelShape createColumnShape(int thisRadius) {
         final double radius = thisRadius / 16.0;
         return VoxelShapes.create(new AxisAlignedBB(0.5 - radius, 0.0, 0.5 - radius, 0.5 + radius, 1.0, 0.5 + radius));
     }
@@ -149,7 +149,19 @@ public class TrunkShellBlock extends BlockWithDynamicHardness implements IWaterL
 
     @Nullable
     public ShellMuse getMuseUnchecked(IBlockReader access, BlockState state, BlockPos pos) {
-        return this.getMuseUnchecked(access, state, pos, pos);
+        final ShellMuseCache cache = ShellMuseCache.get(access);
+        if (cache == null) {
+            return this.getMuseUnchecked(access, state, pos, pos);
+        }
+
+        ShellMuse muse = cache.get(access, pos, state);
+        if (muse == null) {
+            muse = this.getMuseUnchecked(access, state, pos, pos);
+            if (muse != null) {
+                cache.put(pos.immutable(), state, muse);
+            }
+        }
+        return muse;
     }
 
     @Nullable
@@ -5,6 +5,8 @@ import com.ferreusveritas.dynamictrees.api.Ageable;
 import com.ferreusveritas.dynamictrees.api.TreeHelper;
 import com.ferreusveritas.dynamictrees.api.cells.Cell;
 import com.ferreusveritas.dynamictrees.api.cells.CellNull;
+import com.ferreusveritas.dynamictrees.api.cells.CellSolver;
+import com.ferreusveritas.dynamictrees.api.cells.SideValueCellSolver;
 import com.ferreusveritas.dynamictrees.api.network.MapSignal;
 import com.ferreusveritas.dynamictrees.api.treedata.TreePart;
 import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
@@ -12,6 +14,7 @@ import com.ferreusveritas.dynamictrees.init.DTClient;
 import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import com.ferreusveritas.dynamictrees.items.Seed;
 import com.ferreusveritas.dynamictrees.loot.DTLootParameters;
+import com.ferreusveritas.dynamictrees.systems.DirtyLeafScheduler;
 import com.ferreusveritas.dynamictrees.systems.GrowSignal;
 import com.ferreusveritas.dynamictrees.trees.Family;
 import com.ferreusveritas.dynamictrees.trees.Species;
@@ -137,10 +140,12 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
             return;
         }
 
+        // Hydration changes are propagated by the dirty leaf scheduler, so ticks only need to grow leaves.
+        final boolean growOnly = DirtyLeafScheduler.isEnabled();
         double attempts = DTConfigs.TREE_GROWTH_FOLDING.get() * DTConfigs.TREE_GROWTH_MULTIPLIER.get();
 
         if (attempts >= 1.0f || rand.nextFloat() < attempts) {
-            doTick(world, pos, state, rand);
+            doTick(world, pos, state, rand, growOnly);
         }
 
         int start = rand.nextInt(26);
@@ -153,7 +158,7 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
                 final BlockState dState = world.getBlockState(dPos);
 
                 if (dState.getBlock() instanceof DynamicLeavesBlock) {
-                    ((DynamicLeavesBlock) dState.getBlock()).doTick(world, dPos, dState, rand);
+                    ((DynamicLeavesBlock) dState.getBlock()).doTick(world, dPos, dState, rand, growOnly);
                 }
             }
         }
@@ -169,6 +174,14 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
         }
     }
 
+    private void doTick(World world, BlockPos pos, BlockState state, Random rand, boolean growOnly) {
+        if (!growOnly) {
+            doTick(world, pos, state, rand);
+        } else if (canTickAt(world, pos) && getProperties(state).updateTick(world, pos, state, rand)) {
+            grow(world, pos, state, rand);
+        }
+    }
+
     protected boolean canTickAt(World world, BlockPos pos) {
         // Check 2 blocks away for loaded chunks
         int xm = pos.getX() - ((pos.getX() >> 4) << 4);
@@ -208,6 +221,37 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
             }
         }
 
+        growNewLeaves(world, pos, leavesProperties, newHydro, rand, safeBounds, worldGen);
+
+        return newHydro; // Leaves were not destroyed
+    }
+
+    /**
+     * Grows new leaves around the leaves at the given position and lets them die if they lack light, like {@link
+     * #age(IWorld, BlockPos, BlockState, Random, SafeChunkBounds)} but without re-solving their own hydration. Used
+     * by random ticks while the {@link DirtyLeafScheduler} keeps hydration up to date.
+     *
+     * @param world The {@link World} instance.
+     * @param pos   The {@link BlockPos} of the leaves.
+     * @param state The {@link BlockState} of the leaves.
+     */
+    public void grow(World world, BlockPos pos, BlockState state, Random rand) {
+        final LeavesProperties leavesProperties = getProperties(state);
+        if (!leavesProperties.shouldAge(false, state)) {
+            return;
+        }
+
+        if (!hasAdequateLight(state, world, leavesProperties, pos)) {
+            world.removeBlock(pos, false); // No light .. no leaves.
+            return;
+        }
+
+        growNewLeaves(world, pos, leavesProperties, state.getValue(DynamicLeavesBlock.DISTANCE), rand,
+                SafeChunkBounds.ANY, false);
+    }
+
+    private void growNewLeaves(IWorld world, BlockPos pos, LeavesProperties leavesProperties, int newHydro,
+                               Random rand, SafeChunkBounds safeBounds, boolean worldGen) {
         // We should do this even if the hydro is only 1.  Since there could be adjacent branch blocks that could use a leaves block
         for (Direction dir : Direction.values()) { // Go on all 6 sides of this block
             if (newHydro > 1 || rand.nextInt(4) == 0) { // we'll give it a 1 in 4 chance to grow leaves if hydro is low to help performance
@@ -220,8 +264,46 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
                 }
             }
         }
+    }
 
-        return newHydro; // Leaves were not destroyed
+    /**
+     * Re-solves the hydration of the leaves at the given position from their neighbours, removing them if they have
+     * dried out. Unlike {@link #age(IWorld, BlockPos, BlockState, Random, SafeChunkBounds)}, this neither grows new
+     * leaves nor checks light. Used by the {@link DirtyLeafScheduler}.
+     *
+     * @param world The {@link World} instance.
+     * @param pos   The {@link BlockPos} of the leaves.
+     * @param state The {@link BlockState} of the leaves.
+     */
+    public void updateHydration(World world, BlockPos pos, BlockState state) {
+        final LeavesProperties leavesProperties = getProperties(state);
+        if (!leavesProperties.shouldAge(false, state)) {
+            return;
+        }
+
+        final int oldHydro = state.getValue(DynamicLeavesBlock.DISTANCE);
+        final int newHydro = getHydrationLevelFromNeighbors(world, pos, leavesProperties);
+
+        if (newHydro == 0) {
+            world.removeBlock(pos, false);
+        } else if (oldHydro != newHydro) {
+            world.setBlock(pos, getLeavesBlockStateForPlacement(world, pos, leavesProperties.getDynamicLeavesState(newHydro), oldHydro, false), appearanceChangesWithHydro(oldHydro, newHydro) ? 2 : 4);
+        }
+    }
+
+    @Override
+    public void onPlace(BlockState state, World world, BlockPos pos, BlockState oldState, boolean isMoving) {
+        super.onPlace(state, world, pos, oldState, isMoving);
+        DirtyLeafScheduler.markNeighbours(world, pos);
+    }
+
+    @Override
+    public void onRemove(BlockState state, World world, BlockPos pos, BlockState newState, boolean isMoving) {
+        // Changes of hydration are handled by onPlace.
+        if (!newState.is(this)) {
+            DirtyLeafScheduler.markNeighbours(world, pos);
+        }
+        super.onRemove(state, world, pos, newState, isMoving);
     }
 
     /**
@@ -485,6 +567,21 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
      * @return The hydration from the solved cells.
      */
     public int getHydrationLevelFromNeighbors(IWorld world, BlockPos pos, LeavesProperties leavesProperties) {
+        final CellSolver solver = leavesProperties.getCellKit().getCellSolver();
+
+        // Solvers that only need the side values are solved without gathering the cells.
+        if (solver instanceof SideValueCellSolver) {
+            final BlockPos.Mutable deltaPos = new BlockPos.Mutable();
+            return ((SideValueCellSolver) solver).solve(
+                    this.getSideValue(world, pos, deltaPos, Direction.DOWN, leavesProperties),
+                    this.getSideValue(world, pos, deltaPos, Direction.UP, leavesProperties),
+                    this.getSideValue(world, pos, deltaPos, Direction.NORTH, leavesProperties),
+                    this.getSideValue(world, pos, deltaPos, Direction.SOUTH, leavesProperties),
+                    this.getSideValue(world, pos, deltaPos, Direction.WEST, leavesProperties),
+                    this.getSideValue(world, pos, deltaPos, Direction.EAST, leavesProperties)
+            );
+        }
+
         final Cell[] cells = new Cell[6];
 
         for (Direction dir : Direction.values()) {
@@ -495,7 +592,17 @@ public class DynamicLeavesBlock extends LeavesBlock implements TreePart, Ageable
             cells[dir.ordinal()] = part.getHydrationCell(world, deltaPos, state, dir, leavesProperties);
         }
 
-        return leavesProperties.getCellKit().getCellSolver().solve(cells); // Find center cell's value from neighbors.
+        return solver.solve(cells); // Find center cell's value from neighbors.
+    }
+
+    /**
+     * Gets the value the cell of the neighbour on the given side presents to the leaves at the given position.
+     */
+    private int getSideValue(IWorld world, BlockPos pos, BlockPos.Mutable deltaPos, Direction dir, LeavesProperties leavesProperties) {
+        deltaPos.setWithOffset(pos, dir);
+        final BlockState state = world.getBlockState(deltaPos);
+        return TreeHelper.getTreePart(state).getHydrationCell(world, deltaPos, state, dir, leavesProperties)
+                .getValueFromSide(dir.getOpposite());
     }
 
     @Override
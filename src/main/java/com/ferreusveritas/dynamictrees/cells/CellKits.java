@@ -5,10 +5,13 @@ import com.ferreusveritas.dynamictrees.api.cells.CellKit;
 import com.ferreusveritas.dynamictrees.api.cells.CellNull;
 import com.ferreusveritas.dynamictrees.api.cells.Cell;
 import com.ferreusveritas.dynamictrees.api.cells.CellSolver;
+import com.ferreusveritas.dynamictrees.api.cells.SideValueCellSolver;
 import com.ferreusveritas.dynamictrees.api.registry.Registry;
 import com.ferreusveritas.dynamictrees.util.SimpleVoxmap;
 import net.minecraft.util.Direction;
 
+import java.util.Arrays;
+
 public class CellKits {
 
     public static final CellKit DECIDUOUS = new CellKit(DynamicTrees.resLoc("deciduous")) {
@@ -373,23 +376,69 @@ public class CellKits {
         return 0;
     }
 
-    static public class BasicSolver implements CellSolver {
+    /**
+     * A solver for the codes of {@link #solveCell(int[], short[])}, compiled into a table of the solution for every
+     * combination of side values.
+     * <p>
+     * Only the hydration values tested by the codes matter, so side values are first mapped to a class: their index
+     * among the tested values, or one past the last for any other value. The table is indexed by the classes of the 6
+     * sides in mixed radix, which keeps it small (at most 7<sup>6</sup> entries for 6 tested values) while solving a
+     * cell with a single lookup.
+     */
+    static public class BasicSolver implements SideValueCellSolver {
 
         private final short[] codes;
+        private final byte[] classes = new byte[16];
+        private final int radix;
+        private final byte[] table;
 
         public BasicSolver(short[] codes) {
             this.codes = codes;
-        }
 
-        @Override
-        public int solve(Cell[] cells) {
-            int[] nv = new int[16];//neighbor hydration values
+            final int[] tested = new int[16];
+            int testedCount = 0;
+            Arrays.fill(classes, (byte) -1);
+            for (short code : codes) {
+                final int hydro = (code >> 8) & 15;
+                if (classes[hydro] == -1) {
+                    classes[hydro] = (byte) testedCount;
+                    tested[testedCount++] = hydro;
+                }
+            }
+            for (int value = 0; value < 16; value++) {
+                if (classes[value] == -1) {
+                    classes[value] = (byte) testedCount;
+                }
+            }
 
-            for (Direction dir : Direction.values()) {
-                nv[cells[dir.ordinal()].getValueFromSide(dir.getOpposite())]++;
+            radix = testedCount + 1;
+            table = new byte[radix * radix * radix * radix * radix * radix];
+
+            final int[] nv = new int[16];
+            for (int index = 0; index < table.length; index++) {
+                Arrays.fill(nv, 0);
+                int rest = index;
+                for (int side = 0; side < 6; side++) {
+                    final int valueClass = rest % radix;
+                    rest /= radix;
+                    if (valueClass < testedCount) { // Untested values needn't be counted.
+                        nv[tested[valueClass]]++;
+                    }
+                }
+                table[index] = (byte) solveCell(nv, codes);
             }
+        }
 
-            return solveCell(nv, codes);
+        public short[] getCodes() {
+            return codes;
+        }
+
+        @Override
+        public int solve(int down, int up, int north, int south, int west, int east) {
+            final byte[] c = classes;
+            final int r = radix;
+            return table[((((c[down & 15] * r + c[up & 15]) * r + c[north & 15]) * r + c[south & 15]) * r
+                    + c[west & 15]) * r + c[east & 15]];
         }
 
     }
@@ -33,6 +33,7 @@ public final class CommandConstants {
     public static final String TRANSFORM = "transform";
     public static final String CLEAR_ORPHANED = "clearorphaned";
     public static final String PURGE_TREES = "purgetrees";
+    public static final String PREGEN = "pregen";
 
     //////////////////////////////
     // Argument Identifiers
@@ -43,6 +44,10 @@ public final class CommandConstants {
     public static final String TURNS = "turns";
     public static final String SPECIES = "species";
     public static final String RAW = "raw";
+    public static final String FROM = "from";
+    public static final String TO = "to";
+    public static final String THREADS = "threads";
+    public static final String CANCEL = "cancel";
 
     //////////////////////////////
     // Argument Defaults
@@ -50,6 +55,7 @@ public final class CommandConstants {
 
     public static final String DEFAULT_JO_CODE = "JP";
     public static final int DEFAULT_TURNS = 0;
+    public static final int DEFAULT_PREGEN_THREADS = 2;
 
     //////////////////////////////
     // Suggestions
@@ -18,7 +18,8 @@ public final class DTCommand {
         // Registers sub-commands.
         Collections.addAll(this.subCommands, new GetTreeCommand(), new GrowPulseCommand(), new KillTreeCommand(), new RegistryCommand(),
                 new FertilityCommand(), new SetTreeCommand(), new RotateJoCodeCommand(), new CreateStaffCommand(), new SetCoordXorCommand(),
-                new CreateTransformPotionCommand(), new TransformCommand(), new ClearOrphanedCommand(), new PurgeTreesCommand());
+                new CreateTransformPotionCommand(), new TransformCommand(), new ClearOrphanedCommand(), new PurgeTreesCommand(),
+                new PregenCommand());
     }
 
     public void registerDTCommand(CommandDispatcher<CommandSource> dispatcher) {
@@ -0,0 +1,88 @@
+package com.ferreusveritas.dynamictrees.command;
+
+import com.ferreusveritas.dynamictrees.worldgen.BiomeDatabases;
+import com.ferreusveritas.dynamictrees.worldgen.TreePregenerator;
+import com.google.common.collect.Lists;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.command.arguments.ColumnPosArgument;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ColumnPos;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.List;
+
+import static com.ferreusveritas.dynamictrees.command.CommandConstants.*;
+
+/**
+ * Pregenerates dynamic trees over a rectangle of already generated chunks. See {@link TreePregenerator}.
+ */
+public final class PregenCommand extends SubCommand {
+
+    private static final SimpleCommandExceptionType ALREADY_RUNNING = new SimpleCommandExceptionType(
+            new TranslationTextComponent("commands.dynamictrees.error.pregen_running"));
+    private static final SimpleCommandExceptionType NOT_RUNNING = new SimpleCommandExceptionType(
+            new TranslationTextComponent("commands.dynamictrees.error.pregen_not_running"));
+    private static final SimpleCommandExceptionType BLACKLISTED = new SimpleCommandExceptionType(
+            new TranslationTextComponent("commands.dynamictrees.error.pregen_blacklisted"));
+
+    @Override
+    protected String getName() {
+        return PREGEN;
+    }
+
+    @Override
+    protected int getPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    protected List<ArgumentBuilder<CommandSource, ?>> registerArguments() {
+        return Lists.newArrayList(this.registerArgument(), Commands.literal(CANCEL)
+                .executes(context -> executesSuccess(() -> this.cancel(context.getSource()))));
+    }
+
+    @Override
+    public ArgumentBuilder<CommandSource, ?> registerArgument() {
+        return Commands.argument(FROM, ColumnPosArgument.columnPos())
+                .then(Commands.argument(TO, ColumnPosArgument.columnPos())
+                        .executes(context -> executesSuccess(() -> this.start(context.getSource(),
+                                ColumnPosArgument.getColumnPos(context, FROM), ColumnPosArgument.getColumnPos(context, TO),
+                                DEFAULT_PREGEN_THREADS)))
+                        .then(Commands.argument(THREADS, IntegerArgumentType.integer(1, 16))
+                                .executes(context -> executesSuccess(() -> this.start(context.getSource(),
+                                        ColumnPosArgument.getColumnPos(context, FROM),
+                                        ColumnPosArgument.getColumnPos(context, TO), intArgument(context, THREADS))))));
+    }
+
+    private void start(final CommandSource source, final ColumnPos from, final ColumnPos to, final int threads)
+            throws CommandSyntaxException {
+        final ServerWorld world = source.getLevel();
+        if (BiomeDatabases.isBlacklisted(world.dimension().location())) {
+            throw BLACKLISTED.create();
+        }
+
+        final ChunkPos fromChunk = new ChunkPos(from.x >> 4, from.z >> 4);
+        final ChunkPos toChunk = new ChunkPos(to.x >> 4, to.z >> 4);
+        if (!TreePregenerator.start(world, source, fromChunk, toChunk, threads)) {
+            throw ALREADY_RUNNING.create();
+        }
+
+        final int chunks = (Math.abs(toChunk.x - fromChunk.x) + 1) * (Math.abs(toChunk.z - fromChunk.z) + 1);
+        sendSuccessAndLog(source, new TranslationTextComponent("commands.dynamictrees.success.pregen_started",
+                aqua(chunks), aqua(threads)));
+    }
+
+    private void cancel(final CommandSource source) throws CommandSyntaxException {
+        if (!TreePregenerator.cancel(source.getLevel())) {
+            throw NOT_RUNNING.create();
+        }
+        sendSuccessAndLog(source, new TranslationTextComponent("commands.dynamictrees.success.pregen_cancelled"));
+    }
+
+}
@@ -3,12 +3,14 @@ package com.ferreusveritas.dynamictrees.compat.seasons;
 import com.ferreusveritas.dynamictrees.api.seasons.ClimateZoneType;
 import com.ferreusveritas.dynamictrees.api.seasons.SeasonGrowthCalculator;
 import com.ferreusveritas.dynamictrees.api.seasons.SeasonManager;
+import com.ferreusveritas.dynamictrees.util.ClimateCache;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.Tuple;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorld;
 import net.minecraft.world.World;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiPredicate;
@@ -20,6 +22,8 @@ public class NormalSeasonManager implements SeasonManager {
 	public static final Supplier<NormalSeasonManager> NULL = NormalSeasonManager::new;
 
     private final Map<ResourceLocation, SeasonContext> seasonContextMap = new HashMap<>();
+    @Nullable
+    private volatile SeasonValueMemo seasonValueMemo;
     private Function<World, Tuple<SeasonProvider, SeasonGrowthCalculator>> seasonMapper = w -> new Tuple<>(new NullSeasonProvider(), new NullSeasonGrowthCalculator());
 
     public NormalSeasonManager() {
@@ -42,6 +46,7 @@ public class NormalSeasonManager implements SeasonManager {
 
     public void flushMappings() {
         seasonContextMap.clear();
+        seasonValueMemo = null;
     }
 
 
@@ -51,7 +56,7 @@ public class NormalSeasonManager implements SeasonManager {
 
     static private final float TROPICAL_THRESHHOLD = 0.8f; //Same threshold used by Serene Seasons.  Seems smart enough
 
-    private BiPredicate<IWorld, BlockPos> isTropical = (world, rootPos) -> world.getUncachedNoiseBiome(rootPos.getX() >> 2, rootPos.getY() >> 2, rootPos.getZ() >> 2).getBaseTemperature() > TROPICAL_THRESHHOLD;
+    private BiPredicate<IWorld, BlockPos> isTropical = (world, rootPos) -> ClimateCache.getNoiseBiome(world, rootPos.getX() >> 2, rootPos.getY() >> 2, rootPos.getZ() >> 2).getBaseTemperature() > TROPICAL_THRESHHOLD;
 
     /**
      * Set the global predicate that determines if a world location is tropical. Predicate should return true if
@@ -97,8 +102,31 @@ public class NormalSeasonManager implements SeasonManager {
         return isTropical(world, rootPos) ? context.getTropicalFruitProductionFactor(offset) : context.getTemperateFruitProductionFactor(offset);
     }
 
+    /**
+     * Gets the season value of the given world. Season providers only update their value on ticks, and like {@link
+     * SeasonContext} treat it as the same everywhere, so the value is memoised for the rest of the tick.
+     */
     public Float getSeasonValue(World world, BlockPos pos) {
-        return getContext(world).getSeasonProvider().getSeasonValue(world, pos);
+        final long gameTime = world.getGameTime();
+        SeasonValueMemo memo = seasonValueMemo;
+        if (memo == null || memo.world != world || memo.gameTime != gameTime) {
+            memo = new SeasonValueMemo(world, gameTime, getContext(world).getSeasonProvider().getSeasonValue(world, pos));
+            seasonValueMemo = memo;
+        }
+        return memo.value;
+    }
+
+    private static final class SeasonValueMemo {
+        private final World world;
+        private final long gameTime;
+        @Nullable
+        private final Float value;
+
+        private SeasonValueMemo(World world, long gameTime, @Nullable Float value) {
+            this.world = world;
+            this.gameTime = gameTime;
+            this.value = value;
+        }
     }
 
     @Override
@@ -42,7 +42,7 @@ public class FallingTreeRenderer extends EntityRenderer<FallingTreeEntity> {
 
         matrixStack.pushPose();
 
-        final IVertexBuilder vertexBuilder = buffer.getBuffer(RenderType.entityCutout(this.getTextureLocation(entity)));
+        final RenderType renderType = RenderType.entityCutout(this.getTextureLocation(entity));
 
 //		if (entity.onFire) {
 //			renderFire(matrixStack, vertexBuilder);
@@ -50,7 +50,10 @@ public class FallingTreeRenderer extends EntityRenderer<FallingTreeEntity> {
 
         entity.currentAnimationHandler.renderTransform(entity, entityYaw, partialTicks, matrixStack);
 
-        treeModel.renderToBuffer(matrixStack, vertexBuilder, packedLight, OverlayTexture.NO_OVERLAY, 1, 1, 1, 1.0F);
+        if (!treeModel.renderCached(matrixStack, renderType, packedLight)) {
+            final IVertexBuilder vertexBuilder = buffer.getBuffer(renderType);
+            treeModel.renderToBuffer(matrixStack, vertexBuilder, packedLight, OverlayTexture.NO_OVERLAY, 1, 1, 1, 1.0F);
+        }
 
         matrixStack.popPose();
     }
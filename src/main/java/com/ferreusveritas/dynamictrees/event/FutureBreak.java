@@ -1,23 +1,87 @@
 package com.ferreusveritas.dynamictrees.event;
 
 import com.ferreusveritas.dynamictrees.api.FutureBreakable;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.RegistryKey;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A block break deferred to the start of a later tick, such as a branch cut by an entity.
+ * <p>
+ * Breaks are queued per dimension, ordered by the game tick they are due on and then by the order they were added. At
+ * most {@link DTConfigs#FUTURE_BREAK_BUDGET} due breaks are processed per dimension each tick, so bursts such as mass
+ * felling with chain tools are spread over several ticks. Breaks must only be added from the server thread.
+ */
 public class FutureBreak {
 
-    public static final List<FutureBreak> FUTURE_BREAKS = new LinkedList<>();
+    private static final Map<RegistryKey<World>, PriorityQueue<FutureBreak>> QUEUES = new ConcurrentHashMap<>();
+
+    private static final Comparator<FutureBreak> DUE_ORDER = Comparator.<FutureBreak>comparingLong(futureBreak -> futureBreak.dueTick)
+            .thenComparingLong(futureBreak -> futureBreak.order);
+
+    private static long nextOrder;
+
+    /**
+     * A view of the pending breaks of all worlds, in no particular order. Adding to it queues the break as {@link
+     * #add(FutureBreak)} does.
+     *
+     * @deprecated Breaks are now queued per dimension, use {@link #add(FutureBreak)} to queue a break.
+     */
+    @Deprecated
+    public static final List<FutureBreak> FUTURE_BREAKS = new AbstractList<FutureBreak>() {
+        @Override
+        public FutureBreak get(int index) {
+            int remaining = index;
+            if (remaining >= 0) {
+                for (final PriorityQueue<FutureBreak> queue : QUEUES.values()) {
+                    if (remaining >= queue.size()) {
+                        remaining -= queue.size();
+                        continue;
+                    }
+                    for (final FutureBreak futureBreak : queue) {
+                        if (remaining-- == 0) {
+                            return futureBreak;
+                        }
+                    }
+                }
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+        }
+
+        @Override
+        public int size() {
+            return QUEUES.values().stream().mapToInt(PriorityQueue::size).sum();
+        }
+
+        @Override
+        public void add(int index, FutureBreak futureBreak) {
+            FutureBreak.add(futureBreak);
+        }
+    };
 
     public final BlockState state;
     public final World world;
     public final BlockPos pos;
     public final LivingEntity entity;
-    public int ticks;
+    /**
+     * The number of tick phases to wait before breaking, from when this is added. Breaks used to count down at both the
+     * start and the end of every tick, so this counts half ticks: a break is processed at the start of the tick after
+     * {@code ticks / 2} ticks have passed, and a break with no delay at the start of the next tick.
+     */
+    public final int ticks;
+
+    private long dueTick;
+    private long order;
 
     public FutureBreak(BlockState state, World world, BlockPos pos, LivingEntity entity, int ticks) {
         this.state = state;
@@ -28,35 +92,46 @@ public class FutureBreak {
     }
 
     public static void add(FutureBreak fb) {
-        if (!fb.world.isClientSide) {
-            FUTURE_BREAKS.add(fb);
+        if (fb.world.isClientSide) {
+            return;
         }
+
+        fb.dueTick = fb.world.getGameTime() + (Math.max(fb.ticks, 0) >> 1);
+        fb.order = nextOrder++;
+        QUEUES.computeIfAbsent(fb.world.dimension(), key -> new PriorityQueue<>(DUE_ORDER)).add(fb);
     }
 
+    /**
+     * Processes the breaks of the given world that are due, up to the configured budget. Called on the server thread at
+     * the start of every world tick.
+     */
     public static void process(World world) {
-        if (FUTURE_BREAKS.isEmpty()) {
+        final PriorityQueue<FutureBreak> queue = QUEUES.get(world.dimension());
+        if (queue == null) {
             return;
         }
 
-        for (final FutureBreak futureBreak : new LinkedList<>(FUTURE_BREAKS)) {
-            if (world != futureBreak.world) {
-                continue;
-            }
+        final long gameTime = world.getGameTime();
+        int budget = DTConfigs.FUTURE_BREAK_BUDGET.get();
 
-            if (!(futureBreak.state.getBlock() instanceof FutureBreakable)) {
-                FUTURE_BREAKS.remove(futureBreak);
-                continue;
-            }
+        while (budget > 0 && !queue.isEmpty() && queue.peek().dueTick <= gameTime) {
+            final FutureBreak futureBreak = queue.poll();
 
-            if (futureBreak.ticks-- > 0) {
+            if (futureBreak.world != world || !(futureBreak.state.getBlock() instanceof FutureBreakable)) {
                 continue;
             }
 
             final FutureBreakable futureBreakable = (FutureBreakable) futureBreak.state.getBlock();
             futureBreakable.futureBreak(futureBreak.state, world, futureBreak.pos, futureBreak.entity);
-            FUTURE_BREAKS.remove(futureBreak);
+            budget--;
         }
     }
 
-}
+    /**
+     * Discards the pending breaks of the given world. Called when the world is unloaded.
+     */
+    public static void unloadWorld(World world) {
+        QUEUES.remove(world.dimension());
+    }
 
+}
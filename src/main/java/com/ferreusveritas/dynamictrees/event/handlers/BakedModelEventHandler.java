@@ -3,6 +3,7 @@ package com.ferreusveritas.dynamictrees.event.handlers;
 import com.ferreusveritas.dynamictrees.DynamicTrees;
 import com.ferreusveritas.dynamictrees.blocks.PottedSaplingBlock;
 import com.ferreusveritas.dynamictrees.models.bakedmodels.BakedModelBlockBonsaiPot;
+import com.ferreusveritas.dynamictrees.models.bakedmodels.BakedQuadCache;
 import com.ferreusveritas.dynamictrees.models.bakedmodels.BranchBlockBakedModel;
 import com.ferreusveritas.dynamictrees.models.loaders.BranchBlockModelLoader;
 import com.ferreusveritas.dynamictrees.models.loaders.RootBlockModelLoader;
@@ -40,6 +41,7 @@ public final class BakedModelEventHandler {
         // Setup branch baked models (bakes cores and sleeves).
         BranchBlockBakedModel.INSTANCES.forEach(BranchBlockBakedModel::setupModels);
         BranchBlockBakedModel.INSTANCES.clear();
+        BakedQuadCache.resetStats();
 
         // Put bonsai pot baked model into its model location.
         IBakedModel flowerPotModel = event.getModelRegistry().get(new ModelResourceLocation(PottedSaplingBlock.REG_NAME, ""));
@@ -1,13 +1,23 @@
 package com.ferreusveritas.dynamictrees.event.handlers;
 
+import com.ferreusveritas.dynamictrees.blocks.branches.ShellMuseCache;
 import com.ferreusveritas.dynamictrees.client.TooltipHandler;
 import com.ferreusveritas.dynamictrees.compat.seasons.SeasonHelper;
 import com.ferreusveritas.dynamictrees.event.FutureBreak;
 import com.ferreusveritas.dynamictrees.init.DTClient;
+import com.ferreusveritas.dynamictrees.loot.VoluntaryDropBatches;
+import com.ferreusveritas.dynamictrees.loot.VoluntaryLootContexts;
+import com.ferreusveritas.dynamictrees.systems.DirtyLeafScheduler;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeNetworkCache;
+import com.ferreusveritas.dynamictrees.util.ClimateCache;
+import com.ferreusveritas.dynamictrees.worldgen.TreePregenerator;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.ItemTooltipEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.LogicalSide;
@@ -17,7 +27,14 @@ public class CommonEventHandler {
     @SubscribeEvent
     public void onWorldTick(TickEvent.WorldTickEvent event) {
         if (event.side == LogicalSide.SERVER) {
-            FutureBreak.process(event.world);
+            if (event.phase == TickEvent.Phase.START) {
+                FutureBreak.process(event.world);
+            }
+
+            if (event.phase == TickEvent.Phase.END) {
+                DirtyLeafScheduler.process(event.world);
+                TreePregenerator.tick(event.world);
+            }
         }
 
         if (event.type == TickEvent.Type.WORLD && event.phase == TickEvent.Phase.START) {
@@ -32,6 +49,31 @@ public class CommonEventHandler {
         }
     }
 
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (!event.getWorld().isClientSide() && event.getWorld() instanceof World) {
+            TreeNetworkCache.unloadWorld((World) event.getWorld());
+            DirtyLeafScheduler.unloadWorld((World) event.getWorld());
+            ClimateCache.unloadWorld((World) event.getWorld());
+            ShellMuseCache.unloadWorld((World) event.getWorld());
+            FutureBreak.unloadWorld((World) event.getWorld());
+            VoluntaryLootContexts.unloadWorld((World) event.getWorld());
+            VoluntaryDropBatches.unloadWorld((World) event.getWorld());
+            if (event.getWorld() instanceof ServerWorld) {
+                TreePregenerator.cancel((ServerWorld) event.getWorld());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.getWorld().isClientSide() && event.getWorld() instanceof World) {
+            DirtyLeafScheduler.unloadChunk((World) event.getWorld(), event.getChunk().getPos());
+            ShellMuseCache.unloadChunk((World) event.getWorld(), event.getChunk().getPos());
+            VoluntaryDropBatches.unloadChunk((World) event.getWorld(), event.getChunk().getPos());
+        }
+    }
+
     @SubscribeEvent
     @OnlyIn(Dist.CLIENT)
     public void onItemTooltipAdded(ItemTooltipEvent event) {
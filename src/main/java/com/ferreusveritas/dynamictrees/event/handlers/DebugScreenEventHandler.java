@@ -0,0 +1,25 @@
+package com.ferreusveritas.dynamictrees.event.handlers;
+
+import com.ferreusveritas.dynamictrees.DynamicTrees;
+import com.ferreusveritas.dynamictrees.models.bakedmodels.BakedQuadCache;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Adds Dynamic Trees statistics to the right side of the debug screen.
+ */
+@Mod.EventBusSubscriber(modid = DynamicTrees.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
+public final class DebugScreenEventHandler {
+
+    @SubscribeEvent
+    public static void onRenderDebugText(RenderGameOverlayEvent.Text event) {
+        if (Minecraft.getInstance().options.renderDebug) {
+            event.getRight().add("");
+            event.getRight().add(BakedQuadCache.getDebugInfo());
+        }
+    }
+
+}
@@ -34,6 +34,14 @@ public class PoissonDiscEventHandler {
         }
     }
 
+    @SubscribeEvent
+    public void onWorldSave(WorldEvent.Save event) {
+        final IWorld world = event.getWorld();
+        if (!world.isClientSide()) {
+            TreeGenerator.getTreeGenerator().getCircleProvider().saveWorld((ServerWorld) world);
+        }
+    }
+
     @SubscribeEvent
     public void onChunkDataLoad(ChunkDataEvent.Load event) {
         final IWorld world = event.getWorld();
@@ -42,11 +50,17 @@ public class PoissonDiscEventHandler {
 			return;
 		}
 
-        final byte[] circleData = event.getData().getByteArray(CIRCLE_DATA_ID);
         final UniversalPoissonDiscProvider discProvider = TreeGenerator.getTreeGenerator().getCircleProvider();
+        final WorldContext worldContext = WorldContext.create(((World) world));
+
+        // Providers storing their own data only need chunk data that has yet to be migrated.
+        if (!discProvider.getProvider(worldContext).usesChunkData() && !event.getData().contains(CIRCLE_DATA_ID)) {
+            return;
+        }
 
+        final byte[] circleData = event.getData().getByteArray(CIRCLE_DATA_ID);
         final ChunkPos chunkPos = event.getChunk().getPos();
-        discProvider.setChunkPoissonData(WorldContext.create(((World) world)), chunkPos, circleData);
+        discProvider.setChunkPoissonData(worldContext, chunkPos, circleData);
     }
 
     @SubscribeEvent
@@ -56,8 +70,10 @@ public class PoissonDiscEventHandler {
         final IChunk chunk = event.getChunk();
         final ChunkPos chunkPos = chunk.getPos();
 
-        final byte[] circleData = discProvider.getChunkPoissonData(worldContext, chunkPos);
-        event.getData().putByteArray(CIRCLE_DATA_ID, circleData); // Set circle data.
+        if (discProvider.getProvider(worldContext).usesChunkData()) {
+            final byte[] circleData = discProvider.getChunkPoissonData(worldContext, chunkPos);
+            event.getData().putByteArray(CIRCLE_DATA_ID, circleData); // Set circle data.
+        }
 
 		if (chunk instanceof Chunk && !((Chunk) chunk).loaded) {
 			discProvider.unloadChunkPoissonData(worldContext, chunkPos);
@@ -1,6 +1,7 @@
 package com.ferreusveritas.dynamictrees.init;
 
 import com.ferreusveritas.dynamictrees.DynamicTrees;
+import com.ferreusveritas.dynamictrees.api.network.MapSignal;
 import com.ferreusveritas.dynamictrees.blocks.branches.ThickBranchBlock;
 import com.ferreusveritas.dynamictrees.compat.CompatHandler;
 import com.ferreusveritas.dynamictrees.event.handlers.EventHandlers;
@@ -30,6 +31,8 @@ public class DTConfigs {
     public static final ForgeConfigSpec.IntValue SEED_TIME_TO_LIVE;
     public static final ForgeConfigSpec.BooleanValue SEED_ONLY_FOREST;
     public static final ForgeConfigSpec.DoubleValue SEED_MIN_FORESTNESS;
+    public static final ForgeConfigSpec.BooleanValue COALESCE_VOLUNTARY_DROPS;
+    public static final ForgeConfigSpec.IntValue COALESCED_VOLUNTARY_DROP_PULSES;
 
     public static final ForgeConfigSpec.DoubleValue TREE_GROWTH_MULTIPLIER;
     public static final ForgeConfigSpec.DoubleValue TREE_HARVEST_MULTIPLIER;
@@ -42,6 +45,9 @@ public class DTConfigs {
     public static final ForgeConfigSpec.DoubleValue ROOTY_BLOCK_HARDNESS_MULTIPLIER;
     public static final ForgeConfigSpec.EnumValue<DynamicTrees.SwampOakWaterState> SWAMP_OAKS_IN_WATER;
     public static final ForgeConfigSpec.IntValue BONE_MEAL_GROWTH_PULSES;
+    public static final ForgeConfigSpec.IntValue TREE_NETWORK_CACHE_SIZE;
+    public static final ForgeConfigSpec.BooleanValue DIRTY_LEAF_UPDATES;
+    public static final ForgeConfigSpec.IntValue DIRTY_LEAF_UPDATE_BUDGET;
 
     public static final ForgeConfigSpec.BooleanValue IS_LEAVES_PASSABLE;
     public static final ForgeConfigSpec.BooleanValue VANILLA_LEAVES_COLLISION;
@@ -53,6 +59,7 @@ public class DTConfigs {
     public static final ForgeConfigSpec.DoubleValue FALLING_TREE_DAMAGE_MULTIPLIER;
     public static final ForgeConfigSpec.BooleanValue DIRT_BUCKET_PLACES_DIRT;
     public static final ForgeConfigSpec.BooleanValue SLOPPY_BREAK_DROPS;
+    public static final ForgeConfigSpec.IntValue FUTURE_BREAK_BUDGET;
     public static final ForgeConfigSpec.IntValue MIN_RADIUS_FOR_STRIP;
     public static final ForgeConfigSpec.BooleanValue ENABLE_STRIP_RADIUS_REDUCTION;
     public static final ForgeConfigSpec.BooleanValue CAN_BONE_MEAL_FRUIT;
@@ -66,11 +73,16 @@ public class DTConfigs {
     public static final ForgeConfigSpec.BooleanValue PODZOL_GEN;
 
     public static final ForgeConfigSpec.BooleanValue GENERATE_DIRT_BUCKET_RECIPES;
+    public static final ForgeConfigSpec.BooleanValue ITERATIVE_NETWORK_WALKER;
 
     public static final ForgeConfigSpec.BooleanValue WORLD_GEN;
     public static final ForgeConfigSpec.ConfigValue<List<String>> DIMENSION_BLACKLIST;
+    public static final ForgeConfigSpec.IntValue POISSON_DISC_REGION_CACHE_SIZE;
+    public static final ForgeConfigSpec.BooleanValue POISSON_DISC_REGION_FILES;
+    public static final ForgeConfigSpec.BooleanValue JO_CODE_TEMPLATES;
 
     //public static final ForgeConfigSpec.BooleanValue fancyThickRings;
+    public static final ForgeConfigSpec.BooleanValue FALLING_TREE_VERTEX_BUFFERS;
 
     public static final ForgeConfigSpec.BooleanValue WORLD_GEN_DEBUG;
 
@@ -99,6 +111,10 @@ public class DTConfigs {
                 define("seedOnlyForest", true);
         SEED_MIN_FORESTNESS = SERVER_BUILDER.comment("The minimum forestness that non-forest-like biomes can have. 0 = is not at all a forest, 1 = may as well be a forest. Can be fractional.").
                 defineInRange("seedMinForestness", 0.0, 0.0, 1.0);
+        COALESCE_VOLUNTARY_DROPS = SERVER_BUILDER.comment("If enabled then trees collect their voluntary drops over several growth pulses and spawn them together as merged stacks, so fewer item entities are spawned. Drop rates are unchanged, but drops not yet spawned are lost if the chunk unloads.").
+                define("coalesceVoluntaryDrops", false);
+        COALESCED_VOLUNTARY_DROP_PULSES = SERVER_BUILDER.comment("The number of drops a tree collects before spawning them when voluntary drops are coalesced. Drops are spawned earlier if a stack is full.").
+                defineInRange("coalescedVoluntaryDropPulses", 8, 2, 64);
         SERVER_BUILDER.pop();
 
         SERVER_BUILDER.comment("Tree Settings").push("trees");
@@ -124,6 +140,12 @@ public class DTConfigs {
                 defineEnum("swampOaksInWater", DynamicTrees.SwampOakWaterState.ROOTED);
         BONE_MEAL_GROWTH_PULSES = SERVER_BUILDER.comment("The amount of growth pulses to send when bone meal is applied to a tree. Warning: setting values higher than 64 is not recommended other than for testing purposes. ").
                 defineInRange("boneMealGrowthPulses", 1, 1, 512);
+        TREE_NETWORK_CACHE_SIZE = SERVER_BUILDER.comment("The maximum number of tree branch networks cached per dimension, so that repeated analyses of the same tree do not re-walk it. Set to 0 to disable the cache.").
+                defineInRange("treeNetworkCacheSize", 256, 0, 65536);
+        DIRTY_LEAF_UPDATES = SERVER_BUILDER.comment("If enabled, the hydration of leaves is only re-solved next to blocks that changed, instead of leaves re-solving their neighbourhood on random ticks.").
+                define("dirtyLeafUpdates", false);
+        DIRTY_LEAF_UPDATE_BUDGET = SERVER_BUILDER.comment("The maximum time in microseconds spent re-solving dirty leaves per dimension each tick. Leaves left over are re-solved on following ticks.").
+                defineInRange("dirtyLeafUpdateBudget", 2000, 100, 50000);
         SERVER_BUILDER.pop();
 
         SERVER_BUILDER.comment("Interaction Settings").push("interaction");
@@ -147,6 +169,8 @@ public class DTConfigs {
                 define("dirtBucketPlacesDirt", true);
         SLOPPY_BREAK_DROPS = SERVER_BUILDER.comment("If enabled then improperly broken trees(not by an entity) will still drop wood.").
                 define("sloppyBreakDrops", false);
+        FUTURE_BREAK_BUDGET = SERVER_BUILDER.comment("The maximum number of cut branches broken per dimension each tick. Branches left over are broken on following ticks.").
+                defineInRange("futureBreakBudget", 100, 1, 10000);
         MIN_RADIUS_FOR_STRIP = SERVER_BUILDER.comment("The minimum radius a branch must have before its able to be stripped. 8 = Full block size. Set to 0 to disable stripping trees").
                 defineInRange("minRadiusForStrip", 6, 0, 24);
         ENABLE_STRIP_RADIUS_REDUCTION = SERVER_BUILDER.comment("If enabled, stripping a branch will decrease its radius by one").
@@ -176,6 +200,8 @@ public class DTConfigs {
         COMMON_BUILDER.comment("Miscellaneous Settings").push("misc");
         GENERATE_DIRT_BUCKET_RECIPES = COMMON_BUILDER.comment("If enabled, dirt bucket recipes will be automatically generated.")
                 .define("generateDirtBucketRecipes", true);
+        ITERATIVE_NETWORK_WALKER = COMMON_BUILDER.comment("If enabled, tree branch networks are explored with an iterative walker instead of recursively, which creates far less garbage. Disable to fall back to the recursive walk.")
+                .define("iterativeNetworkWalker", true);
         COMMON_BUILDER.pop();
 
         COMMON_BUILDER.comment("World Generation Settings").push("world");
@@ -183,6 +209,12 @@ public class DTConfigs {
                 define("worldGen", true);
         DIMENSION_BLACKLIST = COMMON_BUILDER.comment("Blacklist of dimension registry names for disabling Dynamic Tree worldgen (tree cancellers need to be configured individually for biomes in dynamictrees/tree_canceller.json)").
                 define("dimensionsBlacklist", new ArrayList<>());
+        POISSON_DISC_REGION_CACHE_SIZE = COMMON_BUILDER.comment("The maximum number of 32x32 chunk regions of tree spacing (Poisson disc) data kept in memory per dimension, in addition to those holding loaded chunks. Requires a world reload to take effect.").
+                defineInRange("poissonDiscRegionCacheSize", 16, 0, 4096);
+        POISSON_DISC_REGION_FILES = COMMON_BUILDER.comment("If enabled, tree spacing (Poisson disc) data is stored in region files in each dimension's data folder instead of in chunk NBT. Existing chunk data is migrated as chunks load. Requires a world reload to take effect.").
+                define("poissonDiscRegionFiles", false);
+        JO_CODE_TEMPLATES = COMMON_BUILDER.comment("If enabled, each tree shape (JoCode) is expanded once per species, direction and radius into a template of final branch thicknesses and leaves, which world generation then places directly instead of working them out again for every tree.").
+                define("joCodeTemplates", true);
         COMMON_BUILDER.pop();
 
         COMMON_BUILDER.comment("Mod Integration Settings").push("integration");
@@ -197,10 +229,12 @@ public class DTConfigs {
 
         COMMON_BUILDER.pop();
 
-//		CLIENT_BUILDER.comment("Visual Settings").push("visuals");
+        CLIENT_BUILDER.comment("Visual Settings").push("visuals");
 //		fancyThickRings = CLIENT_BUILDER.comment("Rings of thick trees are rendered using a texture created with an expanded tangram construction technique. Otherwise the ring texture is simply stretched").
 //				define("fancyThickRings", true);
-//		CLIENT_BUILDER.pop();
+        FALLING_TREE_VERTEX_BUFFERS = CLIENT_BUILDER.comment("If enabled, the geometry of each falling tree is built once into a vertex buffer on a worker thread and drawn from it every frame, instead of being re-submitted quad by quad.").
+                define("fallingTreeVertexBuffers", true);
+        CLIENT_BUILDER.pop();
 
         SERVER_BUILDER.comment("Debug Settings").push("debug");
         WORLD_GEN_DEBUG = SERVER_BUILDER.comment("Enable to mark tree spawn locations with concrete circles.").
@@ -215,6 +249,7 @@ public class DTConfigs {
     @SubscribeEvent
     public static void onLoad(final ModConfig.Loading event) {
         EventHandlers.configReload();
+        MapSignal.setIterativeByDefault(ITERATIVE_NETWORK_WALKER.get());
         CompatHandler.reloadSeasonManager();
         BiomeDatabases.populateBlacklistFromConfig();
     }
@@ -222,6 +257,7 @@ public class DTConfigs {
     @SubscribeEvent
     public static void onReload(final ModConfig.Reloading event) {
         EventHandlers.configReload();
+        MapSignal.setIterativeByDefault(ITERATIVE_NETWORK_WALKER.get());
         CompatHandler.reloadSeasonManager();
         BiomeDatabases.populateBlacklistFromConfig();
     }
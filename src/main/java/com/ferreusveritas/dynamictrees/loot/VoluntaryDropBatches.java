@@ -0,0 +1,119 @@
+package com.ferreusveritas.dynamictrees.loot;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the voluntary drops of trees that have not been spawned yet while voluntary drops are coalesced, so that a
+ * tree spawns the drops of several growth pulses together as merged stacks, rather than one item entity every pulse.
+ * <p>
+ * Batches are kept per chunk and discarded with any items not yet spawned when the chunk or world unloads. Must only
+ * be used from the server thread.
+ */
+public final class VoluntaryDropBatches {
+
+    private static final Map<RegistryKey<World>, VoluntaryDropBatches> BATCHES = new ConcurrentHashMap<>();
+
+    private final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Batch>> chunks = new Long2ObjectOpenHashMap<>();
+
+    private VoluntaryDropBatches() {
+    }
+
+    public static VoluntaryDropBatches get(World world) {
+        return BATCHES.computeIfAbsent(world.dimension(), key -> new VoluntaryDropBatches());
+    }
+
+    /**
+     * Adds a drop to the batch of the tree with the given root position.
+     *
+     * @param pulses The number of drops a batch holds before it is complete.
+     * @return The merged stacks of the batch if it is complete or holds a full stack, in which case the tree starts a
+     * new batch, otherwise {@code null}.
+     */
+    @Nullable
+    public List<ItemStack> add(BlockPos rootPos, ItemStack drop, int pulses) {
+        final long chunkKey = ChunkPos.asLong(rootPos.getX() >> 4, rootPos.getZ() >> 4);
+        Long2ObjectOpenHashMap<Batch> batches = this.chunks.get(chunkKey);
+        if (batches == null) {
+            batches = new Long2ObjectOpenHashMap<>();
+            this.chunks.put(chunkKey, batches);
+        }
+
+        final long packedPos = rootPos.asLong();
+        Batch batch = batches.get(packedPos);
+        if (batch == null) {
+            batch = new Batch();
+            batches.put(packedPos, batch);
+        }
+
+        if (!batch.add(drop) && ++batch.drops < pulses) {
+            return null;
+        }
+
+        batches.remove(packedPos);
+        if (batches.isEmpty()) {
+            this.chunks.remove(chunkKey);
+        }
+        return batch.stacks;
+    }
+
+    /**
+     * Discards the batches of trees in the given chunk. Called when the chunk is unloaded.
+     */
+    public static void unloadChunk(World world, ChunkPos chunkPos) {
+        final VoluntaryDropBatches batches = BATCHES.get(world.dimension());
+        if (batches != null) {
+            batches.chunks.remove(chunkPos.toLong());
+        }
+    }
+
+    /**
+     * Discards all batches of the given world. Called when the world is unloaded.
+     */
+    public static void unloadWorld(World world) {
+        BATCHES.remove(world.dimension());
+    }
+
+    private static final class Batch {
+
+        private final List<ItemStack> stacks = new ArrayList<>(2);
+        private int drops = 0;
+
+        /**
+         * Merges the given stack into the stacks of this batch, without exceeding their maximum stack size.
+         *
+         * @return {@code true} if a stack of this batch is now full.
+         */
+        private boolean add(ItemStack stack) {
+            stack = stack.copy();
+            boolean full = false;
+            for (int i = 0; i < this.stacks.size() && !stack.isEmpty(); i++) {
+                final ItemStack into = this.stacks.get(i);
+                if (ItemHandlerHelper.canItemStacksStack(into, stack)) {
+                    final int moved = Math.min(stack.getCount(), into.getMaxStackSize() - into.getCount());
+                    into.grow(moved);
+                    stack.shrink(moved);
+                    full |= into.getCount() >= into.getMaxStackSize();
+                }
+            }
+            if (!stack.isEmpty()) {
+                full |= stack.getCount() >= stack.getMaxStackSize();
+                this.stacks.add(stack);
+            }
+            return full;
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.ferreusveritas.dynamictrees.loot;
+
+import com.ferreusveritas.dynamictrees.util.WorldContext;
+import net.minecraft.block.BlockState;
+import net.minecraft.loot.LootContext;
+import net.minecraft.loot.LootParameters;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds a reusable {@link LootContext.Builder} and {@link WorldContext} per dimension for rolling voluntary drops, so
+ * that trees don't create both every growth pulse. Only the parameters that differ between trees are set on each use.
+ * <p>
+ * Must only be used from the server thread.
+ */
+public final class VoluntaryLootContexts {
+
+    private static final Map<RegistryKey<World>, VoluntaryLootContexts> CONTEXTS = new ConcurrentHashMap<>();
+
+    private final ServerWorld level;
+    private final LootContext.Builder builder;
+    private final WorldContext worldContext;
+
+    private VoluntaryLootContexts(ServerWorld level) {
+        this.level = level;
+        this.builder = new LootContext.Builder(level);
+        this.worldContext = WorldContext.create(level);
+    }
+
+    public static VoluntaryLootContexts get(World world) {
+        final ServerWorld level = WorldContext.getServerWorldOrThrow(world);
+        final VoluntaryLootContexts contexts = CONTEXTS.get(level.dimension());
+        if (contexts != null && contexts.level == level) {
+            return contexts;
+        }
+        final VoluntaryLootContexts created = new VoluntaryLootContexts(level);
+        CONTEXTS.put(level.dimension(), created);
+        return created;
+    }
+
+    public WorldContext getWorldContext() {
+        return this.worldContext;
+    }
+
+    /**
+     * @return A new {@link LootContext} for the {@link DTLootParameterSets#VOLUNTARY} parameter set.
+     */
+    public LootContext create(BlockState rootyState, float seasonalSeedDropFactor, int fertility) {
+        return this.builder.withParameter(LootParameters.BLOCK_STATE, rootyState)
+                .withParameter(DTLootParameters.SEASONAL_SEED_DROP_FACTOR, seasonalSeedDropFactor)
+                .withParameter(DTLootParameters.FERTILITY, fertility)
+                .create(DTLootParameterSets.VOLUNTARY);
+    }
+
+    /**
+     * Discards the contexts of the given world. Called when the world is unloaded.
+     */
+    public static void unloadWorld(World world) {
+        CONTEXTS.remove(world.dimension());
+    }
+
+}
@@ -5,37 +5,71 @@ import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
 import com.ferreusveritas.dynamictrees.blocks.rootyblocks.RootyBlock;
 import com.ferreusveritas.dynamictrees.client.QuadManipulator;
 import com.ferreusveritas.dynamictrees.entities.FallingTreeEntity;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import com.ferreusveritas.dynamictrees.models.modeldata.ModelConnections;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.BranchDestructionData;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mojang.blaze3d.vertex.IVertexBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.LeavesBlock;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BlockRendererDispatcher;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.entity.model.EntityModel;
 import net.minecraft.client.renderer.model.BakedQuad;
 import net.minecraft.client.renderer.model.IBakedModel;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Direction;
+import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.IBlockReader;
 import net.minecraft.world.World;
 import net.minecraftforge.client.model.data.EmptyModelData;
+import org.lwjgl.opengl.GL11;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
 
+    /**
+     * The format of the cached vertex buffer, matching that of the {@link RenderType#entityCutout} render type.
+     */
+    private static final VertexFormat BUFFER_FORMAT = DefaultVertexFormats.NEW_ENTITY;
+
     protected final List<TreeQuadData> quads;
     //	protected Map<BakedQuad, Integer> quadTints;
     protected final int entityId;
     protected final Species species;
 
+    /**
+     * The baked geometry of the tree, created on first use and filled by a worker thread. Light is baked into the
+     * vertices, so the buffer is rebuilt when the light of the tree changes, while the previous build keeps being drawn.
+     */
+    @Nullable
+    private VertexBuffer vertexBuffer;
+    @Nullable
+    private CompletableFuture<Void> pendingBuild;
+    private int bufferLight = -1;
+    private volatile boolean bufferReady;
+    private volatile boolean closed;
+
     public FallingTreeEntityModel(FallingTreeEntity entity) {
         World world = entity.getCommandSenderWorld();
         BranchDestructionData destructionData = entity.getDestroyData();
@@ -75,6 +109,8 @@ public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
             BlockPos rootPos = destructionData.cutPos;
             if (exState != null) {
                 Species species = destructionData.species;
+                final HashMap<BlockPos, BlockState> leavesClusters = species.getFellingLeavesClusters(destructionData);
+                final TreeVoxels voxels = new TreeVoxels(destructionData, leavesClusters);
 
                 //Draw the rooty block if it is set to fall too
                 BlockPos bottomPos = entity.blockPosition().below();
@@ -84,7 +120,8 @@ public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
                     RootyBlock rootyBlock = TreeHelper.getRooty(bottomState);
                     if (rootyBlock != null && rootyBlock.fallWithTree(bottomState, entity.level, bottomPos)) {
                         IBakedModel rootyModel = dispatcher.getBlockModel(bottomState);
-                        treeQuads.addAll(toTreeQuadData(QuadManipulator.getQuads(rootyModel, bottomState, new Vector3d(0, -1, 0), EmptyModelData.INSTANCE),
+                        voxels.put(BlockPos.ZERO.below(), bottomState);
+                        treeQuads.addAll(toTreeQuadData(QuadManipulator.getQuads(rootyModel, bottomState, new Vector3d(0, -1, 0), voxels.getVisibleSides(bottomState, BlockPos.ZERO.below()), EmptyModelData.INSTANCE),
                                 destructionData.species.getFamily().getRootColor(bottomState, rootyBlock.getColorFromBark()),
                                 bottomState));
                         rootyBlockAdded = true;
@@ -121,12 +158,11 @@ public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
                             exState));
                 }
 
-                //Draw the leaves
-                final HashMap<BlockPos, BlockState> leavesClusters = species.getFellingLeavesClusters(destructionData);
+                //Draw the leaves, leaving out faces hidden by their neighbours
                 if (leavesClusters != null) {
                     for (Map.Entry<BlockPos, BlockState> leafLoc : leavesClusters.entrySet()) {
                         BlockState leafState = leafLoc.getValue();
-                        treeQuads.addAll(toTreeQuadData(QuadManipulator.getQuads(dispatcher.getBlockModel(leafState), leafState, new Vector3d(leafLoc.getKey().getX(), leafLoc.getKey().getY(), leafLoc.getKey().getZ()), EmptyModelData.INSTANCE),
+                        treeQuads.addAll(toTreeQuadData(QuadManipulator.getQuads(dispatcher.getBlockModel(leafState), leafState, new Vector3d(leafLoc.getKey().getX(), leafLoc.getKey().getY(), leafLoc.getKey().getZ()), voxels.getVisibleSides(leafState, leafLoc.getKey()), EmptyModelData.INSTANCE),
                                 species.leafColorMultiplier(entity.level, rootPos.offset(leafLoc.getKey())), leafState));
                     }
                 } else {
@@ -134,7 +170,7 @@ public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
                         BlockPos relPos = destructionData.getLeavesRelPos(index);
                         BlockState leafState = destructionData.getLeavesBlockState(index);
                         IBakedModel leavesModel = dispatcher.getBlockModel(leafState);
-                        treeQuads.addAll(toTreeQuadData(QuadManipulator.getQuads(leavesModel, leafState, new Vector3d(relPos.getX(), relPos.getY(), relPos.getZ()), EmptyModelData.INSTANCE),
+                        treeQuads.addAll(toTreeQuadData(QuadManipulator.getQuads(leavesModel, leafState, new Vector3d(relPos.getX(), relPos.getY(), relPos.getZ()), voxels.getVisibleSides(leafState, relPos), EmptyModelData.INSTANCE),
                                 destructionData.getLeavesProperties(index).treeFallColorMultiplier(leafState, entity.level, rootPos.offset(relPos)), leafState));
                     }
                 }
@@ -151,26 +187,87 @@ public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
 
     @Override
     public void renderToBuffer(MatrixStack matrixStack, IVertexBuilder buffer, int packedLight, int packedOverlay, float red, float green, float blue, float alpha) {
-        int color;
-        float r, g, b;
         for (TreeQuadData treeQuad : getQuads()) {
-            r = 1;
-            g = 1;
-            b = 1;
-            BakedQuad bakedQuad = treeQuad.bakedQuad;
-            if (bakedQuad.isTinted()) {
-                color = (species == null) ? treeQuad.color : species.colorTreeQuads(treeQuad.color, treeQuad);
-                r = (float) (color >> 16 & 255) / 255.0F;
-                g = (float) (color >> 8 & 255) / 255.0F;
-                b = (float) (color & 255) / 255.0F;
-            }
-            if (bakedQuad.isShade()) {
-                float diffuse = 0.8f;
-                r *= diffuse;
-                g *= diffuse;
-                b *= diffuse;
-            }
-            buffer.putBulkData(matrixStack.last(), bakedQuad, r, g, b, packedLight, packedOverlay);
+            putQuad(matrixStack.last(), buffer, treeQuad, packedLight, packedOverlay);
+        }
+    }
+
+    protected void putQuad(MatrixStack.Entry pose, IVertexBuilder buffer, TreeQuadData treeQuad, int packedLight, int packedOverlay) {
+        int color;
+        float r = 1, g = 1, b = 1;
+        BakedQuad bakedQuad = treeQuad.bakedQuad;
+        if (bakedQuad.isTinted()) {
+            color = (species == null) ? treeQuad.color : species.colorTreeQuads(treeQuad.color, treeQuad);
+            r = (float) (color >> 16 & 255) / 255.0F;
+            g = (float) (color >> 8 & 255) / 255.0F;
+            b = (float) (color & 255) / 255.0F;
+        }
+        if (bakedQuad.isShade()) {
+            float diffuse = 0.8f;
+            r *= diffuse;
+            g *= diffuse;
+            b *= diffuse;
+        }
+        buffer.putBulkData(pose, bakedQuad, r, g, b, packedLight, packedOverlay);
+    }
+
+    /**
+     * Draws the tree from its cached vertex buffer, starting a build of the buffer on a worker thread if it doesn't
+     * exist yet or the light has changed.
+     *
+     * @return {@code true} if the tree was drawn; otherwise it should be rendered with {@link #renderToBuffer}.
+     */
+    public boolean renderCached(MatrixStack matrixStack, RenderType renderType, int packedLight) {
+        if (this.closed || !DTConfigs.FALLING_TREE_VERTEX_BUFFERS.get()) {
+            return false;
+        }
+
+        if (this.vertexBuffer == null) {
+            this.vertexBuffer = new VertexBuffer(BUFFER_FORMAT);
+        }
+
+        if (packedLight != this.bufferLight && (this.pendingBuild == null || this.pendingBuild.isDone())) {
+            this.bufferLight = packedLight;
+            final VertexBuffer vertexBuffer = this.vertexBuffer;
+            this.pendingBuild = CompletableFuture.supplyAsync(() -> this.buildBuffer(packedLight), Util.backgroundExecutor())
+                    .thenCompose(builder -> this.closed ? CompletableFuture.completedFuture(null) : vertexBuffer.uploadLater(builder))
+                    .thenRun(() -> this.bufferReady = !this.closed);
+        }
+
+        if (!this.bufferReady) {
+            return false;
+        }
+
+        renderType.setupRenderState();
+        this.vertexBuffer.bind();
+        BUFFER_FORMAT.setupBufferState(0L);
+        this.vertexBuffer.draw(matrixStack.last().pose(), GL11.GL_QUADS);
+        VertexBuffer.unbind();
+        BUFFER_FORMAT.clearBufferState();
+        renderType.clearRenderState();
+        return true;
+    }
+
+    private BufferBuilder buildBuffer(int packedLight) {
+        final BufferBuilder builder = new BufferBuilder(this.quads.size() * 4 * BUFFER_FORMAT.getVertexSize());
+        final MatrixStack.Entry identity = new MatrixStack().last();
+        builder.begin(GL11.GL_QUADS, BUFFER_FORMAT);
+        for (TreeQuadData treeQuad : this.quads) {
+            putQuad(identity, builder, treeQuad, packedLight, OverlayTexture.NO_OVERLAY);
+        }
+        builder.end();
+        return builder;
+    }
+
+    /**
+     * Releases the cached vertex buffer. Must be called on the render thread once the model is no longer used.
+     */
+    public void close() {
+        this.closed = true;
+        this.bufferReady = false;
+        if (this.vertexBuffer != null) {
+            this.vertexBuffer.close();
+            this.vertexBuffer = null;
         }
     }
 
@@ -182,6 +279,77 @@ public class FallingTreeEntityModel extends EntityModel<FallingTreeEntity> {
         return bakedQuads.stream().map(bakedQuad -> new TreeQuadData(bakedQuad, defaultColor, state)).collect(Collectors.toList());
     }
 
+    /**
+     * The blocks of a falling tree relative to its cut position, used to cull the faces of its blocks hidden by their
+     * neighbours as the world renderer would.
+     */
+    private static final class TreeVoxels implements IBlockReader {
+
+        private final Long2ObjectOpenHashMap<BlockState> states = new Long2ObjectOpenHashMap<>();
+        private final boolean fancyLeaves = Minecraft.useFancyGraphics();
+
+        private TreeVoxels(BranchDestructionData destructionData, @Nullable Map<BlockPos, BlockState> leavesClusters) {
+            for (int index = 0; index < destructionData.getNumBranches(); index++) {
+                this.put(destructionData.getBranchRelPos(index), destructionData.getBranchBlockState(index));
+            }
+            if (leavesClusters != null) {
+                leavesClusters.forEach(this::put);
+            } else {
+                for (int index = 0; index < destructionData.getNumLeaves(); index++) {
+                    this.put(destructionData.getLeavesRelPos(index), destructionData.getLeavesBlockState(index));
+                }
+            }
+        }
+
+        private void put(BlockPos relPos, @Nullable BlockState state) {
+            if (state != null) {
+                this.states.put(relPos.asLong(), state);
+            }
+        }
+
+        /**
+         * @return The sides of the block at the given position whose quads should be rendered, always including the
+         * {@code null} side for quads that aren't culled.
+         */
+        private Direction[] getVisibleSides(BlockState state, BlockPos relPos) {
+            final List<Direction> sides = new ArrayList<>(7);
+            for (Direction dir : Direction.values()) {
+                if (this.shouldRenderFace(state, relPos, dir)) {
+                    sides.add(dir);
+                }
+            }
+            sides.add(null);
+            return sides.toArray(new Direction[0]);
+        }
+
+        private boolean shouldRenderFace(BlockState state, BlockPos relPos, Direction dir) {
+            // Like leaves in older versions, fast leaves hide the faces of neighbouring leaves.
+            if (!this.fancyLeaves && state.getBlock() instanceof LeavesBlock &&
+                    this.getBlockState(relPos.relative(dir)).getBlock() instanceof LeavesBlock) {
+                return false;
+            }
+            return Block.shouldRenderFace(state, this, relPos, dir);
+        }
+
+        @Nullable
+        @Override
+        public TileEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            final BlockState state = this.states.get(pos.asLong());
+            return state == null ? Blocks.AIR.defaultBlockState() : state;
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return this.getBlockState(pos).getFluidState();
+        }
+
+    }
+
     public static final class TreeQuadData {
         public final BakedQuad bakedQuad;
         public final BlockState state;
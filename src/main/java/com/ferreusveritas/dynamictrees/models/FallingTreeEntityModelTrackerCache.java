@@ -5,28 +5,33 @@ import net.minecraft.world.World;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
 
 @OnlyIn(Dist.CLIENT)
 public class FallingTreeEntityModelTrackerCache {
 
-    private static ConcurrentMap<Integer, FallingTreeEntityModel> models = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Integer, FallingTreeEntityModel> models = new ConcurrentHashMap<>();
 
     public static FallingTreeEntityModel getOrCreateModel(FallingTreeEntity entity) {
         return models.computeIfAbsent(entity.getId(), e -> new FallingTreeEntityModel(entity));
     }
 
     public static void cleanupModels(World world, FallingTreeEntity entity) {
-        models.remove(entity.getId());
+        final FallingTreeEntityModel model = models.remove(entity.getId());
+        if (model != null) {
+            model.close();
+        }
         cleanupModels(world);
     }
 
     public static void cleanupModels(World world) {
-        models = models.entrySet().stream()
-                .filter(map -> world.getEntity(map.getKey()) != null)
-                .collect(Collectors.toConcurrentMap(Map.Entry::getKey, Map.Entry::getValue));
+        models.entrySet().removeIf(entry -> {
+            if (world.getEntity(entry.getKey()) != null) {
+                return false;
+            }
+            entry.getValue().close();
+            return true;
+        });
     }
 }
@@ -0,0 +1,115 @@
+package com.ferreusveritas.dynamictrees.models.bakedmodels;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the quads of a baked model, keyed by a long packing every input the quads depend on, such as the
+ * radius and connection radii of a branch. Models with many blocks in view produce the same few combinations over and
+ * over, so this saves assembling the same quad lists on every chunk rebuild.
+ *
+ * <p>Cached lists are immutable. Once the cache is full new combinations are no longer cached, so callers always get a
+ * result. Caches are safe to use from chunk builder threads.</p>
+ *
+ * <p>Hit rates of all caches are tracked for the debug screen, see {@link #getDebugInfo()}.</p>
+ */
+@OnlyIn(Dist.CLIENT)
+public final class BakedQuadCache {
+
+    /**
+     * The value returned by the packing methods for inputs which can't be packed, and so shouldn't be cached.
+     */
+    public static final long UNCACHEABLE = -1L;
+
+    private static final int DEFAULT_MAX_SIZE = 4096;
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final AtomicInteger SIZE = new AtomicInteger();
+
+    private final Map<Long, List<BakedQuad>> quads = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public BakedQuadCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public BakedQuadCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The cached quads for the given key, or {@code null} if they should be created and {@link #put}.
+     */
+    @Nullable
+    public List<BakedQuad> get(long key) {
+        if (key == UNCACHEABLE) {
+            return null;
+        }
+
+        final List<BakedQuad> cached = this.quads.get(key);
+        if (cached == null) {
+            MISSES.increment();
+        } else {
+            HITS.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the given quads if there's space left.
+     *
+     * @return An immutable copy of the given quads, which should be returned in place of them.
+     */
+    public List<BakedQuad> put(long key, List<BakedQuad> quads) {
+        final List<BakedQuad> immutableQuads = ImmutableList.copyOf(quads);
+        if (key != UNCACHEABLE && this.quads.size() < this.maxSize && this.quads.putIfAbsent(key, immutableQuads) == null) {
+            SIZE.incrementAndGet();
+        }
+        return immutableQuads;
+    }
+
+    /**
+     * Packs the given radii into 5 bits each, starting with the first in the lowest bits.
+     *
+     * @return The packed radii, or {@link #UNCACHEABLE} if any radius is outside of the range [0, 31].
+     */
+    public static long packRadii(int[] radii) {
+        long packed = 0;
+        for (int i = radii.length - 1; i >= 0; i--) {
+            if (radii[i] < 0 || radii[i] > 31) {
+                return UNCACHEABLE;
+            }
+            packed = (packed << 5) | radii[i];
+        }
+        return packed;
+    }
+
+    /**
+     * Clears the statistics of all caches. Called when models are baked, as every model then gets a new cache.
+     */
+    public static void resetStats() {
+        HITS.reset();
+        MISSES.reset();
+        SIZE.set(0);
+    }
+
+    /**
+     * @return A line describing the hit rate and size of all caches, for the debug screen.
+     */
+    public static String getDebugInfo() {
+        final long hits = HITS.sum();
+        final long lookups = hits + MISSES.sum();
+        return String.format("DT Quad Cache: %.1f%% hits, %d cached", lookups == 0 ? 0.0 : hits * 100.0 / lookups, SIZE.get());
+    }
+
+}
@@ -36,6 +36,8 @@ public class BasicBranchBlockBakedModel extends BranchBlockBakedModel {
     private final IBakedModel[][] cores = new IBakedModel[3][8]; // 8 Cores for 3 axis with the bark texture all all 6 sides rotated appropriately.
     private final IBakedModel[] rings = new IBakedModel[8]; // 8 Cores with the ring textures on all 6 sides.
 
+    protected final BakedQuadCache quadCache = new BakedQuadCache();
+
     public BasicBranchBlockBakedModel(ResourceLocation modelResLoc, ResourceLocation barkResLoc, ResourceLocation ringsResLoc) {
         super(modelResLoc, barkResLoc, ringsResLoc);
     }
@@ -165,8 +167,6 @@ public class BasicBranchBlockBakedModel extends BranchBlockBakedModel {
             return Collections.emptyList();
         }
 
-        final List<BakedQuad> quadsList = new ArrayList<>(24);
-
         final int coreRadius = getRadius(state);
 
         if (coreRadius > 8) {
@@ -186,6 +186,14 @@ public class BasicBranchBlockBakedModel extends BranchBlockBakedModel {
                     twigRadius.set(family.getPrimaryThickness()));
         }
 
+        final long cacheKey = getCacheKey(coreRadius, connections, forceRingDir, twigRadius.get());
+        final List<BakedQuad> cachedQuads = this.quadCache.get(cacheKey);
+        if (cachedQuads != null) {
+            return cachedQuads;
+        }
+
+        final List<BakedQuad> quadsList = new ArrayList<>(24);
+
         // Count number of connections.
         int numConnections = 0;
         for (int i : connections) {
@@ -226,7 +234,21 @@ public class BasicBranchBlockBakedModel extends BranchBlockBakedModel {
             }
         }
 
-        return quadsList;
+        return this.quadCache.put(cacheKey, quadsList);
+    }
+
+    /**
+     * Packs every input the quads of a branch depend on into a key for the {@link #quadCache}.
+     *
+     * @return The key, or {@link BakedQuadCache#UNCACHEABLE} if the inputs are out of range.
+     */
+    protected static long getCacheKey(int coreRadius, int[] connections, @Nullable Direction forceRingDir, int twigRadius) {
+        final long packedConnections = BakedQuadCache.packRadii(connections);
+        if (packedConnections == BakedQuadCache.UNCACHEABLE || coreRadius < 0 || coreRadius > 31 || twigRadius < 0 || twigRadius > 31) {
+            return BakedQuadCache.UNCACHEABLE;
+        }
+        final long ring = forceRingDir == null ? 0 : forceRingDir.get3DDataValue() + 1;
+        return coreRadius | packedConnections << 5 | ring << 35 | (long) twigRadius << 38;
     }
 
 
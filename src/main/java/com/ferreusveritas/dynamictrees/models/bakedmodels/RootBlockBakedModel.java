@@ -34,6 +34,8 @@ public class RootBlockBakedModel extends BranchBlockBakedModel {
     private final IBakedModel[][] cores = new IBakedModel[2][8]; //8 Cores for 2 axis(X, Z) with the bark texture on all 6 sides rotated appropriately.
     private final IBakedModel[][] verts = new IBakedModel[4][8];
 
+    private final BakedQuadCache quadCache = new BakedQuadCache();
+
     public RootBlockBakedModel(ResourceLocation modelResLoc, ResourceLocation barkResLoc) {
         super(modelResLoc, barkResLoc, null);
     }
@@ -172,8 +174,6 @@ public class RootBlockBakedModel extends BranchBlockBakedModel {
             return Collections.emptyList();
         }
 
-        final List<BakedQuad> quads = new ArrayList<>(24);
-
         int coreRadius = this.getRadius(state);
 
         int[] connections = new int[]{0, 0, 0, 0};
@@ -188,6 +188,16 @@ public class RootBlockBakedModel extends BranchBlockBakedModel {
             connections[i] = MathHelper.clamp(connections[i], 0, coreRadius);
         }
 
+        boolean isGrounded = state.getValue(SurfaceRootBlock.GROUNDED) == Boolean.TRUE;
+
+        final long cacheKey = this.getCacheKey(coreRadius, connections, connectionLevels, isGrounded);
+        final List<BakedQuad> cachedQuads = this.quadCache.get(cacheKey);
+        if (cachedQuads != null) {
+            return cachedQuads;
+        }
+
+        final List<BakedQuad> quads = new ArrayList<>(24);
+
         //The source direction is the biggest connection from one of the 6 directions
         Direction sourceDir = this.getSourceDir(coreRadius, connections);
         if (sourceDir == null) {
@@ -195,8 +205,6 @@ public class RootBlockBakedModel extends BranchBlockBakedModel {
         }
         int coreDir = this.resolveCoreDir(sourceDir);
 
-        boolean isGrounded = state.getValue(SurfaceRootBlock.GROUNDED) == Boolean.TRUE;
-
         for (Direction face : Direction.values()) {
             //Get quads for core model
             if (isGrounded) {
@@ -221,7 +229,27 @@ public class RootBlockBakedModel extends BranchBlockBakedModel {
             }
         }
 
-        return quads;
+        return this.quadCache.put(cacheKey, quads);
+    }
+
+    /**
+     * Packs every input the quads of a root depend on into a key for the {@link #quadCache}.
+     *
+     * @return The key, or {@link BakedQuadCache#UNCACHEABLE} if the inputs are out of range.
+     */
+    private long getCacheKey(int coreRadius, int[] connections, RootConnections.ConnectionLevel[] connectionLevels, boolean isGrounded) {
+        final long packedConnections = BakedQuadCache.packRadii(connections);
+        if (packedConnections == BakedQuadCache.UNCACHEABLE || coreRadius < 0 || coreRadius > 31) {
+            return BakedQuadCache.UNCACHEABLE;
+        }
+
+        long highLevels = 0;
+        for (int i = 0; i < connectionLevels.length; i++) {
+            if (connectionLevels[i] == RootConnections.ConnectionLevel.HIGH) {
+                highLevels |= 1L << i;
+            }
+        }
+        return coreRadius | packedConnections << 5 | highLevels << 25 | (isGrounded ? 1L << 29 : 0);
     }
 
     @Nonnull
@@ -168,8 +168,6 @@ public class ThickBranchBlockBakedModel extends BasicBranchBlockBakedModel {
 
         coreRadius = MathHelper.clamp(coreRadius, 9, 24);
 
-        List<BakedQuad> quads = new ArrayList<>(30);
-
         int[] connections = new int[]{0, 0, 0, 0, 0, 0};
         Direction forceRingDir = null;
         int twigRadius = 1;
@@ -184,6 +182,15 @@ public class ThickBranchBlockBakedModel extends BasicBranchBlockBakedModel {
             }
         }
 
+        // Radii above 8 never clash with the keys of the smaller branches cached by the super class.
+        final long cacheKey = getCacheKey(coreRadius, connections, forceRingDir, twigRadius);
+        final List<BakedQuad> cachedQuads = this.quadCache.get(cacheKey);
+        if (cachedQuads != null) {
+            return cachedQuads;
+        }
+
+        List<BakedQuad> quads = new ArrayList<>(30);
+
         //Count number of connections
         int numConnections = 0;
         for (int i : connections) {
@@ -191,7 +198,7 @@ public class ThickBranchBlockBakedModel extends BasicBranchBlockBakedModel {
         }
 
         if (numConnections == 0 && forceRingDir != null) {
-            return quads;
+            return this.quadCache.put(cacheKey, quads);
         }
 
         if (forceRingDir != null) {
@@ -211,7 +218,7 @@ public class ThickBranchBlockBakedModel extends BasicBranchBlockBakedModel {
             }
         }
 
-        return quads;
+        return this.quadCache.put(cacheKey, quads);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.ferreusveritas.dynamictrees.systems;
+
+import com.ferreusveritas.dynamictrees.blocks.leaves.DynamicLeavesBlock;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-solves the hydration of leaves only where it may have changed, rather than re-solving whole neighbourhoods of
+ * leaves on every random tick.
+ *
+ * <p>A leaves block's hydration only depends on its 6 neighbours, so whenever a branch is placed, changes radius or is
+ * removed, or leaves are placed, change hydration or are removed, the neighbours of that block are marked dirty. Dirty
+ * positions are kept in a set per chunk, so they can be dropped when the chunk unloads, and processed in the order they
+ * were marked within a time budget at the end of each world tick. Solving leaves that change hydration marks their own
+ * neighbours in turn, so changes spread through the canopy until it is stable again.</p>
+ *
+ * <p>While enabled, random ticks of leaves no longer re-solve hydration. They still fold over their neighbourhood at
+ * the configured growth rate, but only grow new leaves and let unlit leaves die, which leaves in a stable canopy can
+ * rule out without solving any cells.</p>
+ *
+ * <p>This scheduler is only used for server levels and must only be accessed from the server thread.</p>
+ */
+public final class DirtyLeafScheduler {
+
+    private static final Map<RegistryKey<World>, DirtyLeafScheduler> SCHEDULERS = new ConcurrentHashMap<>();
+
+    /**
+     * The number of positions processed between checks of the time budget.
+     */
+    private static final int BUDGET_CHECK_INTERVAL = 32;
+
+    private final Long2ObjectLinkedOpenHashMap<LongLinkedOpenHashSet> dirtyChunks = new Long2ObjectLinkedOpenHashMap<>();
+
+    private DirtyLeafScheduler() {
+    }
+
+    public static boolean isEnabled() {
+        return DTConfigs.DIRTY_LEAF_UPDATES.get();
+    }
+
+    /**
+     * @return The {@link DirtyLeafScheduler} for the given world, or {@code null} if the world is client side or the
+     * scheduler is disabled.
+     */
+    @Nullable
+    public static DirtyLeafScheduler get(World world) {
+        if (world.isClientSide || !isEnabled()) {
+            return null;
+        }
+        return SCHEDULERS.computeIfAbsent(world.dimension(), key -> new DirtyLeafScheduler());
+    }
+
+    /**
+     * Marks the 6 neighbours of the given position dirty, as the block at the position has changed in a way that may
+     * affect their hydration.
+     */
+    public static void markNeighbours(World world, BlockPos pos) {
+        final DirtyLeafScheduler scheduler = get(world);
+        if (scheduler == null) {
+            return;
+        }
+
+        final long packedPos = pos.asLong();
+        for (Direction dir : Direction.values()) {
+            scheduler.mark(BlockPos.offset(packedPos, dir));
+        }
+    }
+
+    private void mark(long packedPos) {
+        final long chunkKey = ChunkPos.asLong(BlockPos.getX(packedPos) >> 4, BlockPos.getZ(packedPos) >> 4);
+        LongLinkedOpenHashSet positions = this.dirtyChunks.get(chunkKey);
+        if (positions == null) {
+            positions = new LongLinkedOpenHashSet();
+            this.dirtyChunks.put(chunkKey, positions);
+        }
+        positions.add(packedPos);
+    }
+
+    /**
+     * Re-solves dirty leaves of the given world within the configured time budget. Called on the server thread every
+     * world tick.
+     */
+    public static void process(World world) {
+        final DirtyLeafScheduler scheduler = SCHEDULERS.get(world.dimension());
+        if (scheduler != null) {
+            scheduler.process(world, DTConfigs.DIRTY_LEAF_UPDATE_BUDGET.get() * 1000L);
+        }
+    }
+
+    private void process(World world, long budgetNanos) {
+        final long start = System.nanoTime();
+        final BlockPos.Mutable pos = new BlockPos.Mutable();
+        int processed = 0;
+
+        while (!this.dirtyChunks.isEmpty()) {
+            final long chunkKey = this.dirtyChunks.firstLongKey();
+            final LongLinkedOpenHashSet positions = this.dirtyChunks.get(chunkKey);
+
+            if (positions.isEmpty()) {
+                this.dirtyChunks.remove(chunkKey);
+                continue;
+            }
+
+            pos.set(positions.removeFirstLong());
+            if (world.isLoaded(pos)) {
+                final BlockState state = world.getBlockState(pos);
+                if (state.getBlock() instanceof DynamicLeavesBlock) {
+                    // May mark further positions, including in this chunk.
+                    ((DynamicLeavesBlock) state.getBlock()).updateHydration(world, pos.immutable(), state);
+                }
+            }
+
+            if (++processed % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() - start >= budgetNanos) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Discards the dirty positions of the given chunk. Called when the chunk is unloaded.
+     */
+    public static void unloadChunk(World world, ChunkPos chunkPos) {
+        final DirtyLeafScheduler scheduler = SCHEDULERS.get(world.dimension());
+        if (scheduler != null) {
+            scheduler.dirtyChunks.remove(chunkPos.toLong());
+        }
+    }
+
+    /**
+     * Discards all dirty positions of the given world. Called when the world is unloaded.
+     */
+    public static void unloadWorld(World world) {
+        SCHEDULERS.remove(world.dimension());
+    }
+
+}
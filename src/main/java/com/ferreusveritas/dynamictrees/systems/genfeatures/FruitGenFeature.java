@@ -1,18 +1,13 @@
 package com.ferreusveritas.dynamictrees.systems.genfeatures;
 
-import com.ferreusveritas.dynamictrees.api.TreeHelper;
 import com.ferreusveritas.dynamictrees.api.configurations.ConfigurationProperty;
-import com.ferreusveritas.dynamictrees.api.network.MapSignal;
-import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
 import com.ferreusveritas.dynamictrees.compat.seasons.SeasonHelper;
 import com.ferreusveritas.dynamictrees.systems.fruit.Fruit;
 import com.ferreusveritas.dynamictrees.systems.genfeatures.context.PostGenerationContext;
 import com.ferreusveritas.dynamictrees.systems.genfeatures.context.PostGrowContext;
-import com.ferreusveritas.dynamictrees.systems.nodemappers.FindEndsNode;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.CoordUtils;
 import com.ferreusveritas.dynamictrees.util.SafeChunkBounds;
-import net.minecraft.block.BlockState;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorld;
@@ -65,18 +60,14 @@ public class FruitGenFeature extends GenFeature {
     @Override
     protected boolean postGrow(GenFeatureConfiguration configuration, PostGrowContext context) {
         final IWorld world = context.world();
-        final BlockState blockState = world.getBlockState(context.treePos());
-        final BranchBlock branch = TreeHelper.getBranch(blockState);
         final Fruit fruit = configuration.get(FRUIT);
 
-        if (branch != null && branch.getRadius(blockState) >= configuration.get(FRUITING_RADIUS) && context.natural()) {
+        if (context.analysis().getTrunkRadius() >= configuration.get(FRUITING_RADIUS) && context.natural()) {
             final BlockPos rootPos = context.pos();
             final float fruitingFactor = fruit.seasonalFruitProductionFactor(context.worldContext(), rootPos);
 
             if (fruitingFactor > fruit.getMinProductionFactor() && fruitingFactor > world.getRandom().nextFloat()) {
-                final FindEndsNode endFinder = new FindEndsNode();
-                TreeHelper.startAnalysisFromRoot(world, rootPos, new MapSignal(endFinder));
-                final List<BlockPos> endPoints = endFinder.getEnds();
+                final List<BlockPos> endPoints = context.analysis().getEnds();
                 int qty = configuration.get(QUANTITY);
                 if (!endPoints.isEmpty()) {
                     for (int i = 0; i < qty; i++) {
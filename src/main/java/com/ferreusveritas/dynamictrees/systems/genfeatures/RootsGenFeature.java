@@ -86,7 +86,7 @@ public class RootsGenFeature extends GenFeature {
     protected boolean postGrow(GenFeatureConfiguration configuration, PostGrowContext context) {
         final IWorld world = context.world();
         final BlockPos treePos = context.treePos();
-        final int trunkRadius = TreeHelper.getRadius(world, treePos);
+        final int trunkRadius = context.analysis().getTrunkRadius();
 
         if (context.fertility() > 0 && trunkRadius >= configuration.get(MIN_TRUNK_RADIUS)) {
             final Surround surr = Surround.values()[world.getRandom().nextInt(8)];
@@ -1,18 +1,13 @@
 package com.ferreusveritas.dynamictrees.systems.genfeatures;
 
-import com.ferreusveritas.dynamictrees.api.TreeHelper;
 import com.ferreusveritas.dynamictrees.api.configurations.ConfigurationProperty;
-import com.ferreusveritas.dynamictrees.api.network.MapSignal;
-import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
 import com.ferreusveritas.dynamictrees.blocks.leaves.DynamicLeavesBlock;
 import com.ferreusveritas.dynamictrees.compat.seasons.SeasonHelper;
 import com.ferreusveritas.dynamictrees.systems.genfeatures.context.PostGenerationContext;
 import com.ferreusveritas.dynamictrees.systems.genfeatures.context.PostGrowContext;
-import com.ferreusveritas.dynamictrees.systems.nodemappers.FindEndsNode;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.CoordUtils;
 import com.ferreusveritas.dynamictrees.util.SafeChunkBounds;
-import com.ferreusveritas.dynamictrees.util.WorldContext;
 import net.minecraft.block.*;
 import net.minecraft.state.BooleanProperty;
 import net.minecraft.util.Direction;
@@ -105,15 +100,10 @@ public class VinesGenFeature extends GenFeature {
             return false;
         }
 
-        final BlockState blockState = world.getBlockState(context.treePos());
-        final BranchBlock branch = TreeHelper.getBranch(blockState);
-
-        if (branch != null && branch.getRadius(blockState) >= fruitingRadius && context.natural()) {
-            if (SeasonHelper.globalSeasonalFruitProductionFactor(WorldContext.create(world), rootPos, false)
+        if (context.analysis().getTrunkRadius() >= fruitingRadius && context.natural()) {
+            if (SeasonHelper.globalSeasonalFruitProductionFactor(context.worldContext(), rootPos, false)
                     > world.getRandom().nextFloat()) {
-                final FindEndsNode endFinder = new FindEndsNode();
-                TreeHelper.startAnalysisFromRoot(world, rootPos, new MapSignal(endFinder));
-                final List<BlockPos> endPoints = endFinder.getEnds();
+                final List<BlockPos> endPoints = context.analysis().getEnds();
                 final int qty = configuration.get(QUANTITY);
 
                 if (!endPoints.isEmpty()) {
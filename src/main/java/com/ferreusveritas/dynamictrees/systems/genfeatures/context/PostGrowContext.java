@@ -13,6 +13,7 @@ public class PostGrowContext extends GenerationContext {
     private final BlockPos treePos;
     private final int fertility;
     private final boolean natural;
+    private final TreeAnalysis analysis;
 
     /**
      * Instantiates a new {@link PostGrowContext} object.
@@ -32,6 +33,7 @@ public class PostGrowContext extends GenerationContext {
         this.treePos = treePos;
         this.fertility = fertility;
         this.natural = natural;
+        this.analysis = new TreeAnalysis(world, rootPos, treePos, species);
     }
 
     public BlockPos treePos() {
@@ -46,4 +48,11 @@ public class PostGrowContext extends GenerationContext {
         return natural;
     }
 
+    /**
+     * @return The {@link TreeAnalysis} of the tree, which is shared by every feature given this context.
+     */
+    public TreeAnalysis analysis() {
+        return analysis;
+    }
+
 }
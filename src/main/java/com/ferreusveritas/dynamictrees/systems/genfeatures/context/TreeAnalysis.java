@@ -0,0 +1,138 @@
+package com.ferreusveritas.dynamictrees.systems.genfeatures.context;
+
+import com.ferreusveritas.dynamictrees.api.TreeHelper;
+import com.ferreusveritas.dynamictrees.api.network.MapSignal;
+import com.ferreusveritas.dynamictrees.api.network.NodeInspector;
+import com.ferreusveritas.dynamictrees.api.treedata.TreePart;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.FindEndsNode;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeNetworkCache;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeSnapshot;
+import com.ferreusveritas.dynamictrees.trees.Species;
+import com.ferreusveritas.dynamictrees.util.BlockBounds;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An analysis of a tree's branch network shared by the {@link com.ferreusveritas.dynamictrees.systems.genfeatures.GenFeature}s
+ * run after a growth pulse, so that the tree is mapped at most once however many features need it.
+ * <p>
+ * The network is only mapped the first time something other than the trunk radius is requested. It is served from the
+ * {@link TreeNetworkCache} when it is enabled, otherwise it is mapped from the root. Features only add leaves, fruit
+ * and the like, so the result stays valid for the whole pulse.
+ */
+public final class TreeAnalysis {
+
+    private final IWorld world;
+    private final BlockPos rootPos;
+    private final BlockPos treePos;
+    private final Species species;
+
+    private boolean analysed;
+    private List<BlockPos> ends = Collections.emptyList();
+    private int branchCount;
+    private BlockBounds branchBounds = BlockBounds.INVALID;
+
+    public TreeAnalysis(IWorld world, BlockPos rootPos, BlockPos treePos, Species species) {
+        this.world = world;
+        this.rootPos = rootPos;
+        this.treePos = treePos;
+        this.species = species;
+    }
+
+    /**
+     * @return The radius of the base of the trunk. Read from the world on each call, as features such as the bottom
+     * flare change it.
+     */
+    public int getTrunkRadius() {
+        return TreeHelper.getRadius(this.world, this.treePos);
+    }
+
+    /**
+     * @return An unmodifiable list of the positions of all branch end points.
+     */
+    public List<BlockPos> getEnds() {
+        this.analyse();
+        return this.ends;
+    }
+
+    /**
+     * @return The number of branch blocks in the network.
+     */
+    public int getBranchCount() {
+        this.analyse();
+        return this.branchCount;
+    }
+
+    /**
+     * @return New bounds containing every branch, expanded to contain the leaves around them, or {@link
+     * BlockBounds#INVALID} if the tree has no branches.
+     */
+    public BlockBounds getLeafBounds() {
+        this.analyse();
+        return this.branchBounds == BlockBounds.INVALID ? BlockBounds.INVALID :
+                this.species.getFamily().expandLeavesBlockBounds(new BlockBounds(this.branchBounds));
+    }
+
+    private void analyse() {
+        if (this.analysed) {
+            return;
+        }
+        this.analysed = true;
+
+        final TreeNetworkCache cache = this.world instanceof World ? TreeNetworkCache.get((World) this.world) : null;
+        final BlockState trunkState = this.world.getBlockState(this.treePos);
+        final TreePart treeBase = TreeHelper.getTreePart(trunkState);
+        if (cache != null && treeBase.getRadius(trunkState) > 0) {
+            this.fromSnapshot(cache.getOrCapture((World) this.world, this.rootPos, this.treePos, treeBase, this.species));
+        } else {
+            this.fromWorld();
+        }
+    }
+
+    private void fromSnapshot(TreeNetworkCache.CachedTree tree) {
+        final TreeSnapshot snapshot = tree.getSnapshot();
+        this.ends = tree.getAnalysis().getEnds();
+        this.branchCount = snapshot.size();
+        for (int i = 0; i < snapshot.size(); i++) {
+            this.includeBranch(snapshot.getPos(i));
+        }
+    }
+
+    private void fromWorld() {
+        final FindEndsNode endFinder = new FindEndsNode();
+        final NodeInspector branchCounter = new NodeInspector() {
+            @Override
+            public boolean run(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
+                if (TreeHelper.isBranch(blockState)) {
+                    branchCount++;
+                    includeBranch(pos);
+                }
+                return false;
+            }
+
+            @Override
+            public boolean returnRun(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
+                return false;
+            }
+        };
+
+        if (TreeHelper.startAnalysisFromRoot(this.world, this.rootPos, new MapSignal(endFinder, branchCounter))) {
+            this.ends = Collections.unmodifiableList(endFinder.getEnds());
+        }
+    }
+
+    private void includeBranch(BlockPos pos) {
+        if (this.branchBounds == BlockBounds.INVALID) {
+            this.branchBounds = new BlockBounds(pos);
+        } else {
+            this.branchBounds.union(pos);
+        }
+    }
+
+}
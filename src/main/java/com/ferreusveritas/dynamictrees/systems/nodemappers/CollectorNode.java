@@ -1,27 +1,55 @@
 package com.ferreusveritas.dynamictrees.systems.nodemappers;
 
 import com.ferreusveritas.dynamictrees.api.network.NodeInspector;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorld;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 /**
+ * Collects the positions of all nodes it is run on. Positions are tracked packed with {@link BlockPos#asLong()} in an
+ * open addressing {@link LongSet}, which also serves as the visited set for {@link
+ * com.ferreusveritas.dynamictrees.api.network.MapSignal#trackVisited}.
+ *
  * @author ferreusveritas
  */
 public class CollectorNode implements NodeInspector {
 
+    private final LongSet packedNodes;
+    @Nullable
     private final Set<BlockPos> nodeSet;
 
+    public CollectorNode() {
+        this(new LongOpenHashSet());
+    }
+
+    /**
+     * @param packedNodes The set to collect packed positions into. May be shared between several collectors.
+     */
+    public CollectorNode(LongSet packedNodes) {
+        this.packedNodes = packedNodes;
+        this.nodeSet = null;
+    }
+
+    /**
+     * Collects into the given set of {@link BlockPos} objects as well as the packed set. Prefer {@link
+     * #CollectorNode(LongSet)} where the positions don't need to be objects.
+     */
     public CollectorNode(Set<BlockPos> nodeSet) {
+        this.packedNodes = new LongOpenHashSet();
         this.nodeSet = nodeSet;
     }
 
     @Override
     public boolean run(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
-        nodeSet.add(pos);
+        if (packedNodes.add(pos.asLong()) && nodeSet != null) {
+            nodeSet.add(pos);
+        }
         return false;
     }
 
@@ -31,7 +59,18 @@ public class CollectorNode implements NodeInspector {
     }
 
     public boolean contains(BlockPos pos) {
-        return nodeSet.contains(pos);
+        return packedNodes.contains(pos.asLong());
+    }
+
+    public boolean contains(long packedPos) {
+        return packedNodes.contains(packedPos);
+    }
+
+    /**
+     * @return The collected positions, packed with {@link BlockPos#asLong()}.
+     */
+    public LongSet getPackedNodes() {
+        return packedNodes;
     }
 
-}
\ No newline at end of file
+}
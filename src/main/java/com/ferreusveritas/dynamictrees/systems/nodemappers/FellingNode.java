@@ -0,0 +1,118 @@
+package com.ferreusveritas.dynamictrees.systems.nodemappers;
+
+import com.ferreusveritas.dynamictrees.api.TreeHelper;
+import com.ferreusveritas.dynamictrees.api.network.NodeInspector;
+import com.ferreusveritas.dynamictrees.api.treedata.TreePart;
+import com.ferreusveritas.dynamictrees.systems.BranchConnectables;
+import com.ferreusveritas.dynamictrees.trees.Species;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps everything needed to fell a tree in a single walk of the network from the cut branch. Determines the species
+ * the same way as {@link SpeciesNode} and records every branch and connectable block along with the side of the cut
+ * branch it was reached through, so that the part of the tree beyond the cut can be mapped and destroyed in a second
+ * bulk phase without walking the network again.
+ */
+public class FellingNode implements NodeInspector {
+
+    private Species species = Species.NULL_SPECIES;
+    private final List<Node> nodes = new ArrayList<>(64);
+    private final List<Direction> sideStack = new ArrayList<>(32);
+
+    @Override
+    public boolean run(BlockState blockState, IWorld world, BlockPos pos, @Nullable Direction fromDir) {
+        final TreePart treePart = TreeHelper.getTreePart(blockState);
+        final Direction side = this.getSide(fromDir);
+
+        switch (treePart.getTreePartType()) {
+            case BRANCH:
+                if (species == Species.NULL_SPECIES) {
+                    species = TreeHelper.getBranch(treePart).getFamily().getCommonSpecies();
+                }
+                nodes.add(new Node(pos.immutable(), blockState, fromDir, side));
+                sideStack.add(side);
+                break;
+            case ROOT:
+                species = TreeHelper.getRooty(treePart).getSpecies(world.getBlockState(pos), world, pos);
+                break;
+            default:
+                // Connectable blocks such as bee nests are felled along with the branches.
+                if (BranchConnectables.getConnectionRadiusForBlock(blockState, world, pos,
+                        fromDir == null ? null : fromDir.getOpposite()) > 0) {
+                    nodes.add(new Node(pos.immutable(), blockState, fromDir, side));
+                }
+                break;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean returnRun(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
+        // Only branches receive a return run.
+        if (TreeHelper.isBranch(blockState) && !sideStack.isEmpty()) {
+            sideStack.remove(sideStack.size() - 1);
+        }
+        return false;
+    }
+
+    /**
+     * @return The side of the cut branch the node being run was reached through, or {@code null} for the cut branch
+     * itself.
+     */
+    @Nullable
+    private Direction getSide(@Nullable Direction fromDir) {
+        if (sideStack.isEmpty() || fromDir == null) {
+            return null;
+        }
+        return sideStack.size() == 1 ? fromDir.getOpposite() : sideStack.get(sideStack.size() - 1);
+    }
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    /**
+     * @param excludedSide The side of the cut branch to leave out, or {@code null} to get all mapped branches.
+     * @return The mapped branches and connectable blocks, in the order they were reached.
+     */
+    public List<Node> getNodes(@Nullable Direction excludedSide) {
+        if (excludedSide == null) {
+            return nodes;
+        }
+
+        final List<Node> filtered = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            if (node.side != excludedSide) {
+                filtered.add(node);
+            }
+        }
+        return filtered;
+    }
+
+    public static final class Node {
+
+        public final BlockPos pos;
+        public final BlockState state;
+        @Nullable
+        public final Direction fromDir;
+        @Nullable
+        private final Direction side;
+
+        private Node(BlockPos pos, BlockState state, @Nullable Direction fromDir, @Nullable Direction side) {
+            this.pos = pos;
+            this.state = state;
+            this.fromDir = fromDir;
+            this.side = side;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.ferreusveritas.dynamictrees.systems.nodemappers;
+
+import com.ferreusveritas.dynamictrees.api.TreeHelper;
+import com.ferreusveritas.dynamictrees.api.network.NodeInspector;
+import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeSnapshot;
+import com.ferreusveritas.dynamictrees.trees.Species;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+
+/**
+ * Records the branch network into the flat arrays of a {@link TreeSnapshot}. Each branch is stored with its packed
+ * position, radius, branch block index within its family and the index of the branch it was reached from.
+ */
+public class SnapshotNode implements NodeInspector {
+
+    private final LongArrayList positions = new LongArrayList(64);
+    private final ByteArrayList radii = new ByteArrayList(64);
+    private final ByteArrayList branchIndices = new ByteArrayList(64);
+    private final IntArrayList parents = new IntArrayList(64);
+    private final IntArrayList stack = new IntArrayList(32);
+
+    @Override
+    public boolean run(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
+        final BranchBlock branch = TreeHelper.getBranch(blockState);
+
+        if (branch != null) {
+            final int index = positions.size();
+            positions.add(pos.asLong());
+            radii.add((byte) branch.getRadius(blockState));
+            branchIndices.add((byte) branch.getFamily().getBranchBlockIndex(branch));
+            parents.add(stack.isEmpty() ? -1 : stack.getInt(stack.size() - 1));
+            stack.add(index);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean returnRun(BlockState blockState, IWorld world, BlockPos pos, Direction fromDir) {
+        // Only branches push onto the stack, and only branches receive a return run.
+        if (TreeHelper.isBranch(blockState) && !stack.isEmpty()) {
+            stack.removeInt(stack.size() - 1);
+        }
+        return false;
+    }
+
+    public TreeSnapshot toSnapshot(Species species, BlockPos rootPos, BlockPos treePos, long gameTime) {
+        return new TreeSnapshot(species, rootPos, treePos, gameTime, positions.toLongArray(), radii.toByteArray(),
+                branchIndices.toByteArray(), parents.toIntArray());
+    }
+
+}
@@ -3,36 +3,81 @@ package com.ferreusveritas.dynamictrees.systems.poissondisc;
 import com.ferreusveritas.dynamictrees.api.worldgen.PoissonDebug;
 import com.ferreusveritas.dynamictrees.api.worldgen.PoissonDiscProvider;
 import com.ferreusveritas.dynamictrees.api.worldgen.RadiusCoordinator;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import com.ferreusveritas.dynamictrees.util.CoordUtils;
 import com.ferreusveritas.dynamictrees.util.RandomXOR;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.vector.Vector3i;
 
+import javax.annotation.Nullable;
+
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages and creates all the Poisson discs in a single level (world).
+ * <p>
+ * Discs may be requested from several world generation threads at once. Generating the discs of a chunk reads the
+ * discs of its eight neighbours and writes its own, so the chunk sets are guarded by striped locks: a generating thread
+ * holds the stripes of the whole 3x3 area, acquired in ascending order so that overlapping areas cannot deadlock, while
+ * chunks further apart generate in parallel. Scratch lists and the {@link RandomXOR} are kept per thread, and the random
+ * is reseeded for every chunk from the level seed and chunk position, so a chunk's random sequence does not depend on
+ * which thread generates it.
+ * <p>
+ * The discs of a chunk only depend on the seed and its position, not on the order in which chunks are requested. Every
+ * chunk has one of nine {@link #phase(int, int) phases}, by its coordinates modulo three, so that neighbouring chunks
+ * never share a phase. A chunk's discs are only fitted against those of its neighbours with a lower phase, which are
+ * solved first if they aren't already, recursively, so at most eight levels deep. Neighbours only solved this way are
+ * kept in memory but not saved, since they are solved the same way again when needed, and are only marked generated
+ * once requested themselves. Disc data saved by older versions was fitted in request order instead, so the discs of a
+ * new chunk may overlap those saved in its higher phase neighbours.
+ * <p>
+ * Chunk sets are stored in {@link PoissonDiscRegion}s of 32x32 chunks held by a bounded {@link
+ * PoissonDiscRegionCache}. A thread solving a chunk pins the regions of its area while it and its dependencies are
+ * solved, but never holds locks while solving dependencies.
  *
  * @author ferreusveritas
  */
 public class LevelPoissonDiscProvider implements PoissonDiscProvider {
 
+    private static final int LOCK_STRIPES = 64; // Must be a power of two.
+
     private final RadiusCoordinator radiusCoordinator;
-    private final HashMap<ChunkPos, PoissonDiscChunkSet> chunkDiscs;
-    private RandomXOR random = new RandomXOR();
+    private final PoissonDiscRegionCache regions;
+    @Nullable
+    private final PoissonDiscStorage storage;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private long seed = new Random().nextLong();
     private PoissonDebug debug = PoissonDebug.EMPTY_POISSON_DEBUG;
+    private boolean useGrid = true;
 
     public LevelPoissonDiscProvider(RadiusCoordinator radCoord) {
-        this.chunkDiscs = new HashMap<>();
+        this(radCoord, DTConfigs.POISSON_DISC_REGION_CACHE_SIZE.get());
+    }
+
+    public LevelPoissonDiscProvider(RadiusCoordinator radCoord, int maxRegions) {
+        this(radCoord, maxRegions, null);
+    }
+
+    /**
+     * @param storage The sidecar storage to keep disc data in, or {@code null} to keep it in chunk NBT.
+     */
+    public LevelPoissonDiscProvider(RadiusCoordinator radCoord, int maxRegions, @Nullable PoissonDiscStorage storage) {
+        this.storage = storage;
+        this.regions = new PoissonDiscRegionCache(maxRegions, storage);
         this.radiusCoordinator = radCoord;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
     }
 
     public LevelPoissonDiscProvider setSeed(Long seed) {
         if (seed != null) {
-            this.random = new RandomXOR(seed);
+            this.seed = seed;
         }
         return this;
     }
@@ -42,30 +87,226 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
         this.debug = debug;
     }
 
+    /**
+     * Sets whether discs are only tested against nearby discs using a {@link PoissonDiscGrid}, or against every disc in
+     * the area. Both produce the same discs, so this is only used to compare them.
+     */
+    LevelPoissonDiscProvider setUseGrid(boolean useGrid) {
+        this.useGrid = useGrid;
+        return this;
+    }
+
+    public PoissonDiscRegionCache getRegions() {
+        return this.regions;
+    }
+
     @Override
     public List<PoissonDisc> getPoissonDiscs(int chunkX, int chunkY, int chunkZ) {
-        this.random.setXOR(new BlockPos(chunkX, chunkY, chunkZ));
-        final PoissonDiscChunkSet cSet = getChunkDiscSet(chunkX, chunkZ);
-        if (cSet.generated) {
-            return this.getChunkPoissonDiscs(chunkX, chunkZ);
-        } else {
-            int i = 0;
-            List<PoissonDisc> output = null;
-            while (this.radiusCoordinator.runPass(chunkX, chunkZ, i++)) {
-                output = this.generatePoissonDiscs(random, chunkX, chunkZ);
+        return this.solve(chunkX, chunkY, chunkZ, true);
+    }
+
+    /**
+     * @return The phase of the given chunk, from 0 to 8. Neighbouring chunks, diagonals included, never share a phase.
+     */
+    public static int phase(int chunkX, int chunkZ) {
+        return Math.floorMod(chunkX, 3) + 3 * Math.floorMod(chunkZ, 3);
+    }
+
+    /**
+     * Solves the discs of the given chunk unless they already are, solving those of its lower phase neighbours first.
+     *
+     * @param generate {@code true} if the discs are requested for the chunk itself, so they are marked generated.
+     * @return The discs of the chunk if {@code generate} is set, otherwise {@code null}.
+     */
+    @Nullable
+    private List<PoissonDisc> solve(int chunkX, int chunkY, int chunkZ, boolean generate) {
+        final Scratch scratch = this.scratch.get();
+        final int phase = phase(chunkX, chunkZ);
+        // Dependencies always have a lower phase, so each phase of the recursion can have its own array.
+        final PoissonDiscRegion[] pinned = scratch.pinned[phase];
+        final int pinCount = this.pinArea(pinned, chunkX, chunkZ);
+        try {
+            while (true) {
+                final int lockCount = this.lockArea(scratch.stripes, chunkX, chunkZ);
+                try {
+                    final PoissonDiscChunkSet cSet = this.findChunkDiscSet(chunkX, chunkZ);
+                    final boolean solved = cSet != null && cSet.solved;
+                    if (solved || this.areDependenciesSolved(chunkX, chunkZ, phase)) {
+                        if (!solved) {
+                            this.solveChunk(scratch.random, chunkX, chunkY, chunkZ);
+                        }
+                        return generate ? this.markGenerated(chunkX, chunkZ) : null;
+                    }
+                } finally {
+                    this.unlock(scratch.stripes, lockCount);
+                }
+
+                // Solve missing dependencies without holding locks, as their areas overlap ours. They normally stay
+                // solved, as the regions holding them are pinned, unless a neighbour is unloaded in the meantime.
+                for (CoordUtils.Surround surr : CoordUtils.Surround.values()) {
+                    final Vector3i dir = surr.getOffset();
+                    if (phase(chunkX + dir.getX(), chunkZ + dir.getZ()) < phase) {
+                        this.solve(chunkX + dir.getX(), chunkY, chunkZ + dir.getZ(), false);
+                    }
+                }
+            }
+        } finally {
+            for (int i = 0; i < pinCount; i++) {
+                this.regions.unpin(pinned[i]);
+                pinned[i] = null;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if every neighbour of the given chunk with a lower phase has solved discs in memory.
+     */
+    private boolean areDependenciesSolved(int chunkX, int chunkZ, int phase) {
+        for (CoordUtils.Surround surr : CoordUtils.Surround.values()) {
+            final Vector3i dir = surr.getOffset();
+            if (phase(chunkX + dir.getX(), chunkZ + dir.getZ()) < phase) {
+                final PoissonDiscChunkSet cSet = this.findChunkDiscSet(chunkX + dir.getX(), chunkZ + dir.getZ());
+                if (cSet == null || !cSet.solved) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs every pass of the given chunk. Callers must hold the locks of the surrounding area.
+     */
+    private void solveChunk(RandomXOR random, int chunkX, int chunkY, int chunkZ) {
+        random.setSeed(this.seed + chunkX * 341873128712L + chunkZ * 132897987541L);
+        random.setXOR(new BlockPos(chunkX, chunkY, chunkZ));
+
+        int i = 0;
+        while (this.radiusCoordinator.runPass(chunkX, chunkZ, i++)) {
+            this.generatePoissonDiscs(random, chunkX, chunkZ);
+        }
+
+        // Also marks chunks without any pass solved, so their dependents don't wait on them.
+        final PoissonDiscRegion region = this.regions.pin(chunkX, chunkZ);
+        try {
+            region.getOrCreate(chunkX, chunkZ).solved = true;
+        } finally {
+            this.regions.unpin(region);
+        }
+    }
+
+    /**
+     * Marks the solved discs of the given chunk as generated, keeping them from then on, and returns them. Callers must
+     * hold the lock of the chunk.
+     */
+    private List<PoissonDisc> markGenerated(int chunkX, int chunkZ) {
+        final PoissonDiscRegion region = this.regions.pin(chunkX, chunkZ);
+        try {
+            final PoissonDiscChunkSet cSet = region.getOrCreate(chunkX, chunkZ);
+            if (!cSet.generated) {
+                cSet.generated = true;
+                if (this.storage != null) {
+                    this.storage.write(chunkX, chunkZ, cSet.getDiscData());
+                } else {
+                    this.regions.setResident(region, chunkX, chunkZ, true);
+                }
+            }
+            return cSet.getDiscs(new ArrayList<>(16), chunkX, chunkZ);
+        } finally {
+            this.regions.unpin(region);
+        }
+    }
+
+    /**
+     * Pins the distinct regions covering the 3x3 chunk area centred on the given chunk.
+     *
+     * @param pinned An array of at least 4 elements to store the pinned regions in.
+     * @return The number of regions pinned.
+     */
+    private int pinArea(PoissonDiscRegion[] pinned, int chunkX, int chunkZ) {
+        int count = 0;
+        for (int dx = -1; dx <= 1; dx += 2) {
+            for (int dz = -1; dz <= 1; dz += 2) {
+                final PoissonDiscRegion region = this.regions.pin(chunkX + dx, chunkZ + dz);
+                boolean duplicate = false;
+                for (int i = 0; i < count; i++) {
+                    duplicate |= pinned[i] == region;
+                }
+                if (duplicate) {
+                    this.regions.unpin(region);
+                } else {
+                    pinned[count++] = region;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Locks the stripes covering the 3x3 chunk area centred on the given chunk, in ascending order.
+     *
+     * @param stripes An array of at least 9 elements to store the locked stripes in.
+     * @return The number of distinct stripes locked.
+     */
+    private int lockArea(int[] stripes, int chunkX, int chunkZ) {
+        int count = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                final int stripe = stripe(chunkX + dx, chunkZ + dz);
+                // Insertion sort, dropping duplicates.
+                int i = count;
+                while (i > 0 && stripes[i - 1] > stripe) {
+                    i--;
+                }
+                if (i > 0 && stripes[i - 1] == stripe) {
+                    continue;
+                }
+                System.arraycopy(stripes, i, stripes, i + 1, count - i);
+                stripes[i] = stripe;
+                count++;
             }
+        }
+        for (int i = 0; i < count; i++) {
+            this.locks[stripes[i]].lock();
+        }
+        return count;
+    }
 
-            return output;
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            this.locks[stripes[i]].unlock();
         }
     }
 
-    // A set of caches so we needn't create the lists from scratch for every chunk.
-    private final List<PoissonDisc> discCache1 = new ArrayList<>(64); // 64 is above the typical range to expect for 9 chunks.
-    private final List<PoissonDisc> discCache2 = new ArrayList<>(64);
+    private static int stripe(int chunkX, int chunkZ) {
+        int hash = chunkX * 0x9E3779B9 ^ chunkZ * 0x85EBCA6B;
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
 
+    /**
+     * Per thread working state, so we needn't create the lists from scratch for every chunk.
+     */
+    private static final class Scratch {
+        private final List<PoissonDisc> allDiscs = new ArrayList<>(64); // 64 is above the typical range to expect for 9 chunks.
+        private final List<PoissonDisc> unsolvedDiscs = new ArrayList<>(64);
+        private final PoissonDiscGrid grid = new PoissonDiscGrid();
+        private final IntArrayList nearby = new IntArrayList(64);
+        private final int[] stripes = new int[9];
+        private final PoissonDiscRegion[][] pinned = new PoissonDiscRegion[9][4]; // Per phase.
+        private final RandomXOR random = new RandomXOR();
+    }
+
+    /**
+     * Runs a single pass of generating the discs of the given chunk, fitting them against those of its lower phase
+     * neighbours. Callers must hold the locks of the surrounding area, as acquired by {@link #getPoissonDiscs(int, int,
+     * int)}. The discs are solved but not generated, so they are not saved.
+     */
     public List<PoissonDisc> generatePoissonDiscs(Random random, int chunkX, int chunkZ) {
-        final List<PoissonDisc> allDiscs = discCache1;
-        final List<PoissonDisc> unsolvedDiscs = discCache2;
+        final Scratch scratch = this.scratch.get();
+        final List<PoissonDisc> allDiscs = scratch.allDiscs;
+        final List<PoissonDisc> unsolvedDiscs = scratch.unsolvedDiscs;
+        final PoissonDiscGrid grid = scratch.grid;
+        final IntArrayList nearby = scratch.nearby;
 
         // Step 0. Clear the temporary caches.
         allDiscs.clear();
@@ -73,11 +314,15 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
 
         this.debug.begin(chunkX, chunkZ);
 
-        // Step 1. Collect already solved discs from surrounding chunks.
+        // Step 1. Collect already solved discs from this chunk and the surrounding chunks it depends on. Those with a
+        // higher phase are fitted against this chunk instead, so only have discs from old saves.
+        final int phase = phase(chunkX, chunkZ);
         this.getChunkPoissonDiscs(allDiscs, chunkX, chunkZ);
         for (CoordUtils.Surround surr : CoordUtils.Surround.values()) {
             final Vector3i dir = surr.getOffset();
-            this.getChunkPoissonDiscs(allDiscs, chunkX + dir.getX(), chunkZ + dir.getZ());
+            if (phase(chunkX + dir.getX(), chunkZ + dir.getZ()) < phase) {
+                this.getChunkPoissonDiscs(allDiscs, chunkX + dir.getX(), chunkZ + dir.getZ());
+            }
         }
 
         this.debug.collectSolved(allDiscs);
@@ -92,10 +337,17 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
 
         this.debug.doEdgeMasking(allDiscs);
 
+        // From here on discs are added to and removed from allDiscs through the grid, which keeps an index of them.
+        grid.reset(allDiscs, chunkXStart, chunkZStart, this.useGrid);
+
         // Step 3. Mask out circles against one another.
         for (int i = 0; i < allDiscs.size() - 1; i++) {
-            for (int j = i + 1; j < allDiscs.size(); j++) {
-                PoissonDiscHelper.maskDiscs(allDiscs.get(i), allDiscs.get(j));
+            grid.gather(allDiscs, allDiscs.get(i), nearby);
+            for (int n = 0; n < nearby.size(); n++) {
+                final int j = nearby.getInt(n);
+                if (j > i) {
+                    PoissonDiscHelper.maskDiscs(allDiscs.get(i), allDiscs.get(j));
+                }
             }
         }
 
@@ -108,7 +360,7 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
             final int radius = radiusCoordinator.getRadiusAtCoords(x, z);
             final PoissonDisc rootDisc = new PoissonDisc(x, z, radius);
             rootDisc.real = true;
-            allDiscs.add(rootDisc);
+            grid.add(allDiscs, rootDisc);
             this.debug.createRootDisc(allDiscs, rootDisc);
         }
 
@@ -147,7 +399,7 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
                 slavePos = new Vec2i(slave);//Cache slave position
                 this.debug.findSecondDisc(master, slave, unsolvedDiscs, allDiscs);
 
-                if (this.doesDiscIntersectWith(slave, allDiscs)) {
+                if (this.doesDiscIntersectWith(slave, allDiscs, grid.gather(allDiscs, slave, nearby))) {
                     break;
                 }
             }
@@ -160,7 +412,9 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
             // Step 10. Create a list of existing circles that are intersecting with this circle.  List is ordered by penetration depth.
             int i = 0;
             final Map<Integer, PoissonDisc> intersecting = new TreeMap<>();
-            for (final PoissonDisc c : allDiscs) {
+            grid.gather(allDiscs, slave, nearby);
+            for (int n = 0; n < nearby.size(); n++) {
+                final PoissonDisc c = allDiscs.get(nearby.getInt(n));
                 if (slave.doCirclesIntersectPadding(c)) {
                     final int depth = 16 + (int) c.discPenetration(slave);
                     intersecting.put(depth << 8 | i++, c);
@@ -186,7 +440,9 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
                 this.debug.findThirdDiscCandidate(master1, master2, slave, unsolvedDiscs, allDiscs);
                 if (slave != null) { // Found a 3rd circle candidate
                     // System.out.println("slave is not null");
-                    for (int ci = 0; ci < allDiscs.size(); ci++) {
+                    grid.gather(allDiscs, slave, nearby);
+                    for (int n = 0; n < nearby.size(); n++) {
+                        final int ci = nearby.getInt(n);
                         PoissonDisc c = allDiscs.get(ci);
                         if (slave.doCirclesIntersectPadding(c)) { // See if this new circle intersects with any of the existing circles. If it does then..
                             this.debug.thirdCircleCandidateIntersects(master1, master2, slave, c, unsolvedDiscs, allDiscs);
@@ -196,7 +452,13 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
                                 break; // We needn't continue since we've proven that the circle intersects with any circle.
                             } else { // The overlapping circle is not real.. but the slave circle is.
                                 // System.out.println("Delete the offending non-real circle.");
-                                PoissonDiscHelper.fastRemove(allDiscs, ci--); // Delete the offending non-real circle. The order of the circles is unimportant.
+                                final int last = allDiscs.size() - 1;
+                                grid.fastRemove(allDiscs, ci); // Delete the offending non-real circle. The order of the circles is unimportant.
+                                // The last circle was moved into this position, so check it next if it's nearby, as a scan of the whole list would.
+                                if (ci < last && nearby.getInt(nearby.size() - 1) == last) {
+                                    nearby.removeInt(nearby.size() - 1);
+                                    n--;
+                                }
                             }
                         }
                     }
@@ -210,8 +472,8 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
                 slave.edgeMask(chunkXStart, chunkZStart); // Set the proper mask for whatever chunk this circle resides.
                 slave.real = slave.isInCenterChunk(chunkXStart, chunkZStart); // Only circles created in the center chunk are real.
                 unsolvedDiscs.add(slave); // The new circle is necessarily unsolved and we need it in this list for the next step.
-                PoissonDiscHelper.solveDiscs(unsolvedDiscs, allDiscs); // Run all of the unsolved circles again.
-                allDiscs.add(slave); // add the new circle to the full list.
+                this.solveDiscs(unsolvedDiscs, allDiscs, grid, nearby); // Run all of the unsolved circles again.
+                grid.add(allDiscs, slave); // add the new circle to the full list.
                 this.debug.solveDiscs(unsolvedDiscs, allDiscs);
             }
 
@@ -227,21 +489,26 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
         }
 
         // Add circles to circle set.
-        final PoissonDiscChunkSet cSet = getChunkDiscSet(chunkX, chunkZ);
-        cSet.generated = true;
-
-        for (final PoissonDisc disc : allDiscs) {
-            if (disc.isInCenterChunk(chunkXStart, chunkZStart)) {
-                cSet.addDisc(disc);
+        final PoissonDiscRegion region = this.regions.pin(chunkX, chunkZ);
+        try {
+            final PoissonDiscChunkSet cSet = region.getOrCreate(chunkX, chunkZ);
+            cSet.solved = true;
+
+            for (final PoissonDisc disc : allDiscs) {
+                if (disc.isInCenterChunk(chunkXStart, chunkZStart)) {
+                    cSet.addDisc(disc);
+                }
             }
-        }
 
-        return cSet.getDiscs(new ArrayList<>(16), chunkX, chunkZ);
+            return cSet.getDiscs(new ArrayList<>(16), chunkX, chunkZ);
+        } finally {
+            this.regions.unpin(region);
+        }
     }
 
-    private boolean doesDiscIntersectWith(PoissonDisc disc, List<PoissonDisc> others) {
-        for (final PoissonDisc otherDisc : others) {
-            if (disc.doCirclesIntersectPadding(otherDisc)) {
+    private boolean doesDiscIntersectWith(PoissonDisc disc, List<PoissonDisc> others, IntArrayList nearby) {
+        for (int n = 0; n < nearby.size(); n++) {
+            if (disc.doCirclesIntersectPadding(others.get(nearby.getInt(n)))) {
                 return true;
             }
         }
@@ -249,42 +516,122 @@ public class LevelPoissonDiscProvider implements PoissonDiscProvider {
         return false;
     }
 
-    private PoissonDiscChunkSet getChunkDiscSet(int chunkX, int chunkZ) {
-        final ChunkPos key = new ChunkPos(chunkX, chunkZ);
-        final PoissonDiscChunkSet cSet;
-
-        if (this.chunkDiscs.containsKey(key)) {
-            cSet = this.chunkDiscs.get(key);
-        } else {
-            cSet = new PoissonDiscChunkSet();
-            this.chunkDiscs.put(key, cSet);
+    /**
+     * Masks the unsolved discs against the discs near them, like {@link PoissonDiscHelper#solveDiscs(List, List)}.
+     */
+    private void solveDiscs(List<PoissonDisc> unsolved, List<PoissonDisc> allDiscs, PoissonDiscGrid grid, IntArrayList nearby) {
+        for (final PoissonDisc u : unsolved) {
+            grid.gather(allDiscs, u, nearby);
+            for (int n = 0; n < nearby.size(); n++) {
+                PoissonDiscHelper.maskDiscs(u, allDiscs.get(nearby.getInt(n)));
+            }
         }
+    }
 
-        return cSet;
+    /**
+     * @return The chunk set of the given chunk, or {@code null} if it is not in memory. Does not create anything, so
+     * that merely reading neighbours doesn't grow the store.
+     */
+    @Nullable
+    private PoissonDiscChunkSet findChunkDiscSet(int chunkX, int chunkZ) {
+        final PoissonDiscRegion region = this.regions.get(chunkX, chunkZ);
+        return region == null ? null : region.get(chunkX, chunkZ);
     }
 
     @Override
     public byte[] getChunkPoissonData(int chunkX, int chunkY, int chunkZ) {
-        return this.getChunkDiscSet(chunkX, chunkZ).getDiscData();
+        final ReentrantLock lock = this.locks[stripe(chunkX, chunkZ)];
+        lock.lock();
+        try {
+            final PoissonDiscChunkSet cSet = this.findChunkDiscSet(chunkX, chunkZ);
+            return cSet == null || !cSet.generated ? new byte[16] : cSet.getDiscData().clone();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public void setChunkPoissonData(int chunkX, int chunkY, int chunkZ, byte[] circleData) {
-        this.getChunkDiscSet(chunkX, chunkZ).setDiscData(circleData);
+        final ReentrantLock lock = this.locks[stripe(chunkX, chunkZ)];
+        lock.lock();
+        final PoissonDiscRegion region = this.regions.pin(chunkX, chunkZ);
+        try {
+            final PoissonDiscChunkSet cSet = region.getOrCreate(chunkX, chunkZ);
+            // Chunks without discs can't be told apart from ones saved before their discs were generated, so those
+            // keep any discs solved since.
+            final boolean hasDiscs = PoissonDiscChunkSet.hasDiscs(circleData);
+            if (hasDiscs) {
+                cSet.setDiscData(circleData);
+                cSet.generated = cSet.solved = true;
+            }
+            if (this.storage == null) {
+                this.regions.setResident(region, chunkX, chunkZ, true);
+            } else if (hasDiscs && !this.storage.has(chunkX, chunkZ)) {
+                this.storage.write(chunkX, chunkZ, circleData); // Migrate data from chunk NBT.
+            }
+        } finally {
+            this.regions.unpin(region);
+            lock.unlock();
+        }
     }
 
     @Override
     public void unloadChunkPoissonData(int chunkX, int chunkY, int chunkZ) {
-        this.chunkDiscs.remove(new ChunkPos(chunkX, chunkZ));
+        if (this.storage != null) {
+            return; // The data is kept in storage, so the region can simply be evicted once unused.
+        }
+
+        final ReentrantLock lock = this.locks[stripe(chunkX, chunkZ)];
+        lock.lock();
+        try {
+            final PoissonDiscRegion region = this.regions.get(chunkX, chunkZ);
+            if (region != null) {
+                region.remove(chunkX, chunkZ);
+                this.regions.setResident(region, chunkX, chunkZ, false);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private List<PoissonDisc> getChunkPoissonDiscs(int chunkX, int chunkZ) {
-        return this.getChunkPoissonDiscs(new ArrayList<>(), chunkX, chunkZ);
+    @Override
+    public boolean isChunkGenerated(int chunkX, int chunkY, int chunkZ) {
+        final ReentrantLock lock = this.locks[stripe(chunkX, chunkZ)];
+        lock.lock();
+        final PoissonDiscRegion region = this.regions.pin(chunkX, chunkZ); // Pinned so it is read from storage.
+        try {
+            final PoissonDiscChunkSet cSet = region.get(chunkX, chunkZ);
+            return cSet != null && cSet.generated;
+        } finally {
+            this.regions.unpin(region);
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean usesChunkData() {
+        return this.storage == null;
+    }
+
+    @Override
+    public void save() {
+        if (this.storage != null) {
+            this.storage.flush();
+        }
+    }
+
+    @Override
+    public void unload() {
+        if (this.storage != null) {
+            this.storage.close();
+        }
     }
 
     private List<PoissonDisc> getChunkPoissonDiscs(List<PoissonDisc> discs, int chunkX, int chunkZ) {
-        final PoissonDiscChunkSet cSet = getChunkDiscSet(chunkX, chunkZ);
-        cSet.getDiscs(discs, chunkX, chunkZ);
+        final PoissonDiscChunkSet cSet = this.findChunkDiscSet(chunkX, chunkZ);
+        if (cSet != null) {
+            cSet.getDiscs(discs, chunkX, chunkZ);
+        }
         return discs;
     }
 
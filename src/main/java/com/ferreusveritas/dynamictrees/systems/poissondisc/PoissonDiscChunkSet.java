@@ -46,14 +46,23 @@ import java.util.List;
 public class PoissonDiscChunkSet {
 
     private byte[] discData;
+    /**
+     * Whether the discs of this chunk were generated for the chunk itself, or loaded, and so belong to it. Only
+     * generated discs are saved.
+     */
     public boolean generated = false;
+    /**
+     * Whether the discs of this chunk are final. Set for generated chunks, and for chunks whose discs were only solved
+     * because a neighbour depends on them.
+     */
+    public boolean solved = false;
 
     public PoissonDiscChunkSet() {
         discData = new byte[16];
     }
 
     public PoissonDiscChunkSet(byte[] data) {
-        generated = true;
+        generated = solved = true;
         discData = data != null && data.length == 16 ? Arrays.copyOf(data, 16) : new byte[16];
     }
 
@@ -131,6 +140,18 @@ public class PoissonDiscChunkSet {
         return false;
     }
 
+    /**
+     * @return {@code true} if the given disc data holds at least one disc.
+     */
+    public static boolean hasDiscs(byte[] discData) {
+        for (byte tile : discData) {
+            if (tile != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public byte[] getDiscData() {
         return discData;
     }
@@ -0,0 +1,138 @@
+package com.ferreusveritas.dynamictrees.systems.poissondisc;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.List;
+
+/**
+ * A uniform grid over the 3x3 chunk area being generated, indexing the working list of discs by the positions in that
+ * list. Used to only test a disc against the discs near it rather than every disc in the area.
+ * <p>
+ * The grid mirrors the list, so discs must be added and removed through {@link #add(List, PoissonDisc)} and {@link
+ * #fastRemove(List, int)}. Queries return list positions in ascending order, so callers visit candidates in the same
+ * order as a scan of the whole list would and produce exactly the same discs. Discs outside of the grid are clamped
+ * into its border cells, so queries never miss them.
+ * <p>
+ * When disabled, queries simply return every position in the list, which is how the discs were generated before the
+ * grid was added.
+ */
+final class PoissonDiscGrid {
+
+    private static final int CELL_BITS = 3;
+    private static final int CELLS = 8; // 8 cells of 8 blocks covers the 48 block area and a chunk's half on each side.
+    private static final int MARGIN = 8;
+
+    /**
+     * How far beyond the sum of two radii discs may be and still affect each other. Masking tests a point two blocks
+     * past the edge of a disc, and the raster circles add another block either way.
+     */
+    private static final int REACH_PADDING = 4;
+
+    private final IntArrayList[] cells = new IntArrayList[CELLS * CELLS];
+    private int originX;
+    private int originZ;
+    private int maxRadius;
+    private boolean enabled;
+
+    PoissonDiscGrid() {
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = new IntArrayList(4);
+        }
+    }
+
+    /**
+     * Clears the grid and indexes the given discs, centring the grid on the 3x3 chunk area whose corner chunk starts
+     * one chunk before the given block coordinates.
+     */
+    void reset(List<PoissonDisc> discs, int chunkXStart, int chunkZStart, boolean enabled) {
+        for (final IntArrayList cell : this.cells) {
+            cell.clear();
+        }
+        this.originX = chunkXStart - 16 - MARGIN;
+        this.originZ = chunkZStart - 16 - MARGIN;
+        this.maxRadius = 0;
+        this.enabled = enabled;
+
+        for (int i = 0; i < discs.size(); i++) {
+            this.index(discs.get(i), i);
+        }
+    }
+
+    /**
+     * Appends the given disc to the list and indexes it.
+     */
+    void add(List<PoissonDisc> discs, PoissonDisc disc) {
+        this.index(disc, discs.size());
+        discs.add(disc);
+    }
+
+    /**
+     * Removes the disc at the given position like {@link PoissonDiscHelper#fastRemove(List, int)}, moving the last disc
+     * into its place.
+     */
+    void fastRemove(List<PoissonDisc> discs, int index) {
+        final int last = discs.size() - 1;
+        this.cellOf(discs.get(index)).rem(index);
+        if (index < last) {
+            final IntArrayList cell = this.cellOf(discs.get(last));
+            cell.set(cell.indexOf(last), index);
+        }
+        PoissonDiscHelper.fastRemove(discs, index);
+    }
+
+    /**
+     * Gathers the list positions of every disc that may intersect or mask the given disc, in ascending order.
+     *
+     * @param discs The list of discs, which must be the one this grid mirrors.
+     * @param out   The list to store the positions in. It is cleared first.
+     * @return The given output list.
+     */
+    IntArrayList gather(List<PoissonDisc> discs, PoissonDisc disc, IntArrayList out) {
+        out.clear();
+
+        if (!this.enabled) {
+            for (int i = 0; i < discs.size(); i++) {
+                out.add(i);
+            }
+            return out;
+        }
+
+        final int reach = disc.radius + this.maxRadius + REACH_PADDING;
+        final int minX = this.cellX(disc.x - reach);
+        final int maxX = this.cellX(disc.x + reach);
+        final int minZ = this.cellZ(disc.z - reach);
+        final int maxZ = this.cellZ(disc.z + reach);
+
+        for (int cz = minZ; cz <= maxZ; cz++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                out.addAll(this.cells[cz * CELLS + cx]);
+            }
+        }
+
+        IntArrays.quickSort(out.elements(), 0, out.size());
+        return out;
+    }
+
+    private void index(PoissonDisc disc, int index) {
+        this.cellOf(disc).add(index);
+        this.maxRadius = Math.max(this.maxRadius, disc.radius);
+    }
+
+    private IntArrayList cellOf(PoissonDisc disc) {
+        return this.cells[this.cellZ(disc.z) * CELLS + this.cellX(disc.x)];
+    }
+
+    private int cellX(int x) {
+        return clamp((x - this.originX) >> CELL_BITS);
+    }
+
+    private int cellZ(int z) {
+        return clamp((z - this.originZ) >> CELL_BITS);
+    }
+
+    private static int clamp(int cell) {
+        return cell < 0 ? 0 : Math.min(cell, CELLS - 1);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.ferreusveritas.dynamictrees.systems.poissondisc;
+
+import net.minecraft.util.math.ChunkPos;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+
+/**
+ * Holds the {@link PoissonDiscChunkSet}s of a square region of {@link #SIZE} by {@link #SIZE} chunks.
+ * <p>
+ * Chunk sets are created lazily. A chunk is <i>resident</i> from the moment its discs are generated or loaded until it
+ * is unloaded; a region holding any resident chunk, or in use by a generating thread ({@link #pins}), must not be
+ * evicted. Residency and pins are guarded by the owning {@link PoissonDiscRegionCache}, whereas each chunk set slot is
+ * guarded by the lock of its chunk.
+ */
+public final class PoissonDiscRegion {
+
+    public static final int SHIFT = 5;
+    public static final int SIZE = 1 << SHIFT;
+    private static final int MASK = SIZE - 1;
+
+    private final PoissonDiscChunkSet[] chunkSets = new PoissonDiscChunkSet[SIZE * SIZE];
+    final BitSet resident = new BitSet(SIZE * SIZE);
+    int pins = 0;
+
+    public static long key(int chunkX, int chunkZ) {
+        return ChunkPos.asLong(chunkX >> SHIFT, chunkZ >> SHIFT);
+    }
+
+    static int index(int chunkX, int chunkZ) {
+        return (chunkX & MASK) | (chunkZ & MASK) << SHIFT;
+    }
+
+    @Nullable
+    public PoissonDiscChunkSet get(int chunkX, int chunkZ) {
+        return this.chunkSets[index(chunkX, chunkZ)];
+    }
+
+    public PoissonDiscChunkSet getOrCreate(int chunkX, int chunkZ) {
+        final int index = index(chunkX, chunkZ);
+        PoissonDiscChunkSet cSet = this.chunkSets[index];
+        if (cSet == null) {
+            cSet = this.chunkSets[index] = new PoissonDiscChunkSet();
+        }
+        return cSet;
+    }
+
+    public void remove(int chunkX, int chunkZ) {
+        this.chunkSets[index(chunkX, chunkZ)] = null;
+    }
+
+}
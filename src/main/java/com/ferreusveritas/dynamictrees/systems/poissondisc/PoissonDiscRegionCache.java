@@ -0,0 +1,119 @@
+package com.ferreusveritas.dynamictrees.systems.poissondisc;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded store of {@link PoissonDiscRegion}s, kept in least recently used order.
+ * <p>
+ * Regions holding resident chunks or pinned by a generating thread are always kept. Once the number of regions exceeds
+ * the configured maximum, the least recently used regions that are neither are evicted. Those only hold the empty sets
+ * of neighbour chunks touched during generation, or data of chunks that have since been saved and unloaded, so memory
+ * stays proportional to the loaded area no matter how many chunks are generated.
+ * <p>
+ * With a {@link PoissonDiscStorage}, data is written to disk as soon as it is generated, so chunks never become
+ * resident and any region not in use can be evicted; it is read back from storage when next needed.
+ */
+public final class PoissonDiscRegionCache {
+
+    private final LinkedHashMap<Long, PoissonDiscRegion> regions = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxRegions;
+    @Nullable
+    private final PoissonDiscStorage storage;
+
+    private int residentChunks = 0;
+    private long evictions = 0;
+
+    public PoissonDiscRegionCache(int maxRegions) {
+        this(maxRegions, null);
+    }
+
+    /**
+     * @param storage The storage new regions are read from, or {@code null} if regions only hold data set from chunk
+     *                NBT or generated since.
+     */
+    public PoissonDiscRegionCache(int maxRegions, @Nullable PoissonDiscStorage storage) {
+        this.maxRegions = maxRegions;
+        this.storage = storage;
+    }
+
+    /**
+     * Gets or creates the region containing the given chunk and pins it, so it is not evicted until {@link
+     * #unpin(PoissonDiscRegion)} is called.
+     */
+    public synchronized PoissonDiscRegion pin(int chunkX, int chunkZ) {
+        final PoissonDiscRegion region = this.regions.computeIfAbsent(PoissonDiscRegion.key(chunkX, chunkZ),
+                this::createRegion);
+        region.pins++;
+        return region;
+    }
+
+    private PoissonDiscRegion createRegion(long key) {
+        final PoissonDiscRegion region = new PoissonDiscRegion();
+        if (this.storage != null) {
+            this.storage.load(key, region);
+        }
+        return region;
+    }
+
+    public synchronized void unpin(PoissonDiscRegion region) {
+        region.pins--;
+        this.evict();
+    }
+
+    /**
+     * @return The region containing the given chunk, or {@code null} if it is not in memory.
+     */
+    @Nullable
+    public synchronized PoissonDiscRegion get(int chunkX, int chunkZ) {
+        return this.regions.get(PoissonDiscRegion.key(chunkX, chunkZ));
+    }
+
+    public synchronized void setResident(PoissonDiscRegion region, int chunkX, int chunkZ, boolean resident) {
+        final int index = PoissonDiscRegion.index(chunkX, chunkZ);
+        if (region.resident.get(index) != resident) {
+            region.resident.set(index, resident);
+            this.residentChunks += resident ? 1 : -1;
+        }
+    }
+
+    private void evict() {
+        if (this.regions.size() <= this.maxRegions) {
+            return;
+        }
+
+        final Iterator<Map.Entry<Long, PoissonDiscRegion>> iterator = this.regions.entrySet().iterator();
+        while (iterator.hasNext() && this.regions.size() > this.maxRegions) {
+            final PoissonDiscRegion region = iterator.next().getValue();
+            if (region.pins == 0 && region.resident.isEmpty()) {
+                iterator.remove();
+                this.evictions++;
+            }
+        }
+    }
+
+    /**
+     * @return The number of regions currently held in memory.
+     */
+    public synchronized int getRegionCount() {
+        return this.regions.size();
+    }
+
+    /**
+     * @return The number of chunks whose disc data is currently held in memory because they are loaded or were
+     * generated and not yet unloaded.
+     */
+    public synchronized int getResidentChunkCount() {
+        return this.residentChunks;
+    }
+
+    /**
+     * @return The total number of regions evicted since this cache was created.
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictions;
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.ferreusveritas.dynamictrees.systems.poissondisc;
+
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.DimensionType;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.storage.FolderName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores the Poisson disc data of a dimension in one sidecar file per {@link PoissonDiscRegion}, under the dimension's
+ * {@code data/dynamictrees/poisson_discs} folder, instead of in the NBT of every chunk. Region files are small, so
+ * an open file is read whole into memory and written back whole when it is flushed, with positional channel reads and
+ * writes.
+ * <p>
+ * Region files are laid out as follows:
+ * <pre><tt>
+ * int     magic ("DTPD")
+ * int     version
+ * byte[128] presence bitmap, one bit per chunk of the region
+ * byte[16 * 1024] disc data of each chunk, as encoded by {@link PoissonDiscChunkSet}
+ * </tt></pre>
+ * A bounded number of files are kept open at once. All methods are synchronized.
+ */
+public final class PoissonDiscStorage {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int MAGIC = 0x44545044; // "DTPD"
+    private static final int VERSION = 1;
+    private static final int CHUNKS = PoissonDiscRegion.SIZE * PoissonDiscRegion.SIZE;
+    private static final int PRESENCE_OFFSET = 8;
+    private static final int DATA_OFFSET = PRESENCE_OFFSET + CHUNKS / 8;
+    private static final int FILE_SIZE = DATA_OFFSET + CHUNKS * 16;
+
+    private static final int MAX_OPEN_FILES = 32;
+
+    private final Path folder;
+    private final LinkedHashMap<Long, RegionFile> openFiles = new LinkedHashMap<Long, RegionFile>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RegionFile> eldest) {
+            if (this.size() > MAX_OPEN_FILES) {
+                eldest.getValue().flush();
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public PoissonDiscStorage(Path folder) {
+        this.folder = folder;
+    }
+
+    public static PoissonDiscStorage forWorld(ServerWorld world) {
+        final File dimensionFolder = DimensionType.getStorageFolder(world.dimension(),
+                world.getServer().getWorldPath(FolderName.ROOT).toFile());
+        return new PoissonDiscStorage(dimensionFolder.toPath().resolve("data").resolve("dynamictrees")
+                .resolve("poisson_discs"));
+    }
+
+    /**
+     * Reads all stored chunk data of the region with the given key into the given region.
+     */
+    public synchronized void load(long regionKey, PoissonDiscRegion region) {
+        final RegionFile file = this.getFile(regionKey, false);
+        if (file == null) {
+            return;
+        }
+
+        final int baseX = ChunkPos.getX(regionKey) << PoissonDiscRegion.SHIFT;
+        final int baseZ = ChunkPos.getZ(regionKey) << PoissonDiscRegion.SHIFT;
+        final byte[] data = new byte[16];
+
+        for (int index = 0; index < CHUNKS; index++) {
+            if (file.isPresent(index)) {
+                file.read(index, data);
+                final PoissonDiscChunkSet cSet = region.getOrCreate(baseX + (index & (PoissonDiscRegion.SIZE - 1)),
+                        baseZ + (index >> PoissonDiscRegion.SHIFT));
+                cSet.setDiscData(data);
+                cSet.generated = cSet.solved = true;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if data is stored for the given chunk.
+     */
+    public synchronized boolean has(int chunkX, int chunkZ) {
+        final RegionFile file = this.getFile(PoissonDiscRegion.key(chunkX, chunkZ), false);
+        return file != null && file.isPresent(PoissonDiscRegion.index(chunkX, chunkZ));
+    }
+
+    public synchronized void write(int chunkX, int chunkZ, byte[] data) {
+        final RegionFile file = this.getFile(PoissonDiscRegion.key(chunkX, chunkZ), true);
+        if (file != null) {
+            file.write(PoissonDiscRegion.index(chunkX, chunkZ), data);
+        }
+    }
+
+    /**
+     * Forces all written data of open files to disk. Called when the level is saved.
+     */
+    public synchronized void flush() {
+        this.openFiles.values().forEach(RegionFile::flush);
+    }
+
+    public synchronized void close() {
+        this.openFiles.values().forEach(file -> {
+            file.flush();
+            file.close();
+        });
+        this.openFiles.clear();
+    }
+
+    @Nullable
+    private RegionFile getFile(long regionKey, boolean create) {
+        RegionFile file = this.openFiles.get(regionKey);
+        if (file != null) {
+            return file;
+        }
+
+        final Path path = this.folder.resolve("r." + ChunkPos.getX(regionKey) + "." + ChunkPos.getZ(regionKey) + ".dtpd");
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+
+        try {
+            Files.createDirectories(this.folder);
+            file = new RegionFile(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            LOGGER.error("Failed to open Poisson disc region file {}.", path, e);
+            return null;
+        }
+
+        if (!file.isValid()) {
+            LOGGER.warn("Poisson disc region file {} is invalid and will be reset.", path);
+            file.reset();
+        }
+
+        this.openFiles.put(regionKey, file);
+        return file;
+    }
+
+    private static final class RegionFile {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+        private boolean dirty = false;
+
+        private RegionFile(FileChannel channel) throws IOException {
+            this.channel = channel;
+            while (this.buffer.hasRemaining() && channel.read(this.buffer, this.buffer.position()) >= 0) {
+                // Keep reading until the buffer is full or the end of the file is reached.
+            }
+            this.buffer.clear();
+            if (channel.size() == 0) {
+                this.reset();
+            }
+        }
+
+        private boolean isValid() {
+            return this.buffer.getInt(0) == MAGIC && this.buffer.getInt(4) == VERSION;
+        }
+
+        private void reset() {
+            for (int i = 0; i < FILE_SIZE; i++) {
+                this.buffer.put(i, (byte) 0);
+            }
+            this.buffer.putInt(0, MAGIC);
+            this.buffer.putInt(4, VERSION);
+            this.dirty = true;
+        }
+
+        private boolean isPresent(int index) {
+            return (this.buffer.get(PRESENCE_OFFSET + (index >> 3)) & (1 << (index & 7))) != 0;
+        }
+
+        private void read(int index, byte[] data) {
+            final int offset = DATA_OFFSET + index * 16;
+            for (int i = 0; i < 16; i++) {
+                data[i] = this.buffer.get(offset + i);
+            }
+        }
+
+        private void write(int index, byte[] data) {
+            final int offset = DATA_OFFSET + index * 16;
+            for (int i = 0; i < 16; i++) {
+                this.buffer.put(offset + i, i < data.length ? data[i] : 0);
+            }
+            final int presenceIndex = PRESENCE_OFFSET + (index >> 3);
+            this.buffer.put(presenceIndex, (byte) (this.buffer.get(presenceIndex) | (1 << (index & 7))));
+            this.dirty = true;
+        }
+
+        private void flush() {
+            if (!this.dirty) {
+                return;
+            }
+            try {
+                final ByteBuffer out = this.buffer.duplicate();
+                out.clear();
+                while (out.hasRemaining()) {
+                    this.channel.write(out, out.position());
+                }
+                this.channel.force(false);
+                this.dirty = false;
+            } catch (IOException e) {
+                LOGGER.error("Failed to write Poisson disc region file.", e);
+            }
+        }
+
+        private void close() {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                LOGGER.error("Failed to close Poisson disc region file.", e);
+            }
+        }
+
+    }
+
+}
@@ -2,6 +2,7 @@ package com.ferreusveritas.dynamictrees.systems.poissondisc;
 
 import com.ferreusveritas.dynamictrees.api.worldgen.PoissonDiscProvider;
 import com.ferreusveritas.dynamictrees.event.PoissonDiscProviderCreateEvent;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import com.ferreusveritas.dynamictrees.util.WorldContext;
 import com.ferreusveritas.dynamictrees.worldgen.BiomeRadiusCoordinator;
 import com.ferreusveritas.dynamictrees.worldgen.TreeGenerator;
@@ -21,8 +22,11 @@ public class UniversalPoissonDiscProvider {
     protected PoissonDiscProvider createCircleProvider(WorldContext context) {
         final BiomeRadiusCoordinator radiusCoordinator = new BiomeRadiusCoordinator(TreeGenerator.getTreeGenerator(),
                 context.dimensionName(), context.access());
+        final PoissonDiscStorage storage = DTConfigs.POISSON_DISC_REGION_FILES.get() && context.level() instanceof ServerWorld ?
+                PoissonDiscStorage.forWorld((ServerWorld) context.level()) : null;
         final PoissonDiscProviderCreateEvent poissonDiscProviderCreateEvent = new PoissonDiscProviderCreateEvent(context.access(),
-                new LevelPoissonDiscProvider(radiusCoordinator).setSeed(context.seed()));
+                new LevelPoissonDiscProvider(radiusCoordinator, DTConfigs.POISSON_DISC_REGION_CACHE_SIZE.get(), storage)
+                        .setSeed(context.seed()));
         MinecraftForge.EVENT_BUS.post(poissonDiscProviderCreateEvent);
         return poissonDiscProviderCreateEvent.getPoissonDiscProvider();
     }
@@ -37,7 +41,17 @@ public class UniversalPoissonDiscProvider {
     }
 
     public void unloadWorld(ServerWorld world) {
-        this.providerMap.remove(world.dimension().location());
+        final PoissonDiscProvider provider = this.providerMap.remove(world.dimension().location());
+        if (provider != null) {
+            provider.unload();
+        }
+    }
+
+    public void saveWorld(ServerWorld world) {
+        final PoissonDiscProvider provider = this.providerMap.get(world.dimension().location());
+        if (provider != null) {
+            provider.save();
+        }
     }
 
     public void setChunkPoissonData(WorldContext context, ChunkPos chunkPos, byte[] circleData) {
@@ -0,0 +1,288 @@
+package com.ferreusveritas.dynamictrees.systems.snapshot;
+
+import com.ferreusveritas.dynamictrees.api.TreeHelper;
+import com.ferreusveritas.dynamictrees.api.network.MapSignal;
+import com.ferreusveritas.dynamictrees.api.treedata.TreePart;
+import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.SnapshotNode;
+import com.ferreusveritas.dynamictrees.trees.Species;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A per-level cache of tree branch networks, keyed by the position of their root. Each cached tree holds a {@link
+ * TreeSnapshot} of its network along with its lazily computed {@link TreeSnapshot.Analysis}, and every branch position
+ * is indexed back to its root so that a network lookup from any branch is a single map access.
+ *
+ * <p>Entries are kept up to date incrementally from {@link BranchBlock#onRemove} and {@link BranchBlock#onPlace}: a
+ * radius change of a cached branch is patched into its snapshot, whereas any change to the topology of a tree (branches
+ * added, removed or replaced by another family) drops the tree so that it is captured again on its next analysis.</p>
+ *
+ * <p>This cache is only used for server levels and must only be accessed from the server thread.</p>
+ */
+public final class TreeNetworkCache {
+
+    private static final Map<RegistryKey<World>, TreeNetworkCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Returned by {@link #nodeRoots} for positions that are not part of a cached tree. Packs to an x coordinate far
+     * outside of the world border, so can never be a real root position.
+     */
+    private static final long NO_ROOT = Long.MIN_VALUE;
+
+    private final Map<Long, CachedTree> trees;
+    private final Long2LongOpenHashMap nodeRoots = new Long2LongOpenHashMap();
+
+    private TreeNetworkCache(final int maxTrees) {
+        this.nodeRoots.defaultReturnValue(NO_ROOT);
+        this.trees = new LinkedHashMap<Long, CachedTree>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedTree> eldest) {
+                if (this.size() > maxTrees) {
+                    unindex(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static boolean isEnabled() {
+        return DTConfigs.TREE_NETWORK_CACHE_SIZE.get() > 0;
+    }
+
+    /**
+     * @return The {@link TreeNetworkCache} for the given world, or {@code null} if the world is client side or caching
+     * is disabled.
+     */
+    @Nullable
+    public static TreeNetworkCache get(World world) {
+        if (world.isClientSide || !isEnabled()) {
+            return null;
+        }
+        return CACHES.computeIfAbsent(world.dimension(),
+                key -> new TreeNetworkCache(DTConfigs.TREE_NETWORK_CACHE_SIZE.get()));
+    }
+
+    public static void unloadWorld(World world) {
+        CACHES.remove(world.dimension());
+    }
+
+    /**
+     * Notifies the cache of the level that the branch at the given position has changed. Called when a branch is
+     * placed, has its radius changed or is removed.
+     *
+     * @param world    The {@link World} the change occurred in.
+     * @param pos      The {@link BlockPos} of the change.
+     * @param newState The new {@link BlockState} at the given position.
+     */
+    public static void onBranchChanged(World world, BlockPos pos, BlockState newState) {
+        if (world.isClientSide) {
+            return;
+        }
+
+        final TreeNetworkCache cache = CACHES.get(world.dimension());
+        if (cache != null) {
+            cache.branchChanged(pos, newState);
+        }
+    }
+
+    private void branchChanged(BlockPos pos, BlockState newState) {
+        final long rootKey = nodeRoots.get(pos.asLong());
+        final BranchBlock newBranch = TreeHelper.getBranch(newState);
+
+        if (rootKey == NO_ROOT) {
+            if (newBranch == null) {
+                return;
+            }
+            // A new branch may have joined any tree it is touching.
+            for (Direction dir : Direction.values()) {
+                final long neighbourRoot = nodeRoots.get(BlockPos.offset(pos.asLong(), dir));
+                if (neighbourRoot != NO_ROOT) {
+                    invalidate(neighbourRoot);
+                }
+            }
+            return;
+        }
+
+        final CachedTree tree = trees.get(rootKey);
+        if (tree == null) {
+            return;
+        }
+
+        if (newBranch != null && newBranch.getFamily() == tree.snapshot.getSpecies().getFamily()) {
+            tree.setRadius(tree.indices.get(pos.asLong()), newBranch.getRadius(newState));
+        } else {
+            invalidate(rootKey);
+        }
+    }
+
+    /**
+     * Drops the tree with the given root from the cache.
+     */
+    public void invalidate(BlockPos rootPos) {
+        invalidate(rootPos.asLong());
+    }
+
+    private void invalidate(long rootKey) {
+        final CachedTree tree = trees.remove(rootKey);
+        if (tree != null) {
+            unindex(tree);
+        }
+    }
+
+    private void unindex(CachedTree tree) {
+        final TreeSnapshot snapshot = tree.snapshot;
+        final long rootKey = snapshot.getRootPos().asLong();
+        for (int i = 0; i < snapshot.size(); i++) {
+            final long packedPos = snapshot.getPackedPos(i);
+            if (nodeRoots.get(packedPos) == rootKey) {
+                nodeRoots.remove(packedPos);
+            }
+        }
+    }
+
+    /**
+     * @return The root position of the cached tree containing a branch at the given position, or {@code null} if no
+     * cached tree contains it. Callers should verify the root is still present.
+     */
+    @Nullable
+    public BlockPos findRoot(BlockPos pos) {
+        final long rootKey = nodeRoots.get(pos.asLong());
+        return rootKey == NO_ROOT ? null : BlockPos.of(rootKey);
+    }
+
+    /**
+     * @return The cached tree containing a branch at the given position, or {@code null} if no cached tree contains
+     * it.
+     */
+    @Nullable
+    public CachedTree getTreeContaining(BlockPos pos) {
+        final long rootKey = nodeRoots.get(pos.asLong());
+        return rootKey == NO_ROOT ? null : trees.get(rootKey);
+    }
+
+    @Nullable
+    public CachedTree getTree(BlockPos rootPos) {
+        return trees.get(rootPos.asLong());
+    }
+
+    /**
+     * Gets the cached tree for the given root, capturing its network from the world if it is not cached or if the
+     * cached tree is of a different species.
+     */
+    public CachedTree getOrCapture(World world, BlockPos rootPos, BlockPos treePos, TreePart treeBase,
+                                   Species species) {
+        final CachedTree cached = trees.get(rootPos.asLong());
+        if (cached != null && cached.snapshot.getSpecies() == species
+                && cached.snapshot.getTreePos().equals(treePos)) {
+            return cached;
+        }
+        return capture(world, rootPos, treePos, treeBase, species);
+    }
+
+    /**
+     * Captures the network of the tree at the given root from the world and caches it.
+     */
+    public CachedTree capture(World world, BlockPos rootPos, BlockPos treePos, TreePart treeBase, Species species) {
+        invalidate(rootPos.asLong());
+
+        final SnapshotNode snapshotNode = new SnapshotNode();
+        final MapSignal signal = treeBase.analyse(world.getBlockState(treePos), world, treePos, null,
+                new MapSignal(snapshotNode));
+        final CachedTree tree = new CachedTree(snapshotNode.toSnapshot(species, rootPos, treePos,
+                world.getGameTime()));
+
+        if (signal.overflow) {
+            return tree; // The network was only partially mapped, so don't cache it.
+        }
+
+        final long rootKey = rootPos.asLong();
+        final TreeSnapshot snapshot = tree.snapshot;
+        for (int i = 0; i < snapshot.size(); i++) {
+            final long packedPos = snapshot.getPackedPos(i);
+            final long previousRoot = nodeRoots.put(packedPos, rootKey);
+            if (previousRoot != NO_ROOT && previousRoot != rootKey) {
+                // Networks of two roots touch, so the other tree's cached network is no longer reliable.
+                invalidate(previousRoot);
+                nodeRoots.put(packedPos, rootKey);
+            }
+        }
+        trees.put(rootKey, tree);
+        return tree;
+    }
+
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * A cached tree network.
+     */
+    public static final class CachedTree {
+
+        private TreeSnapshot snapshot;
+        private final Long2IntOpenHashMap indices;
+        @Nullable
+        private TreeSnapshot.Analysis analysis;
+
+        private CachedTree(TreeSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.indices = new Long2IntOpenHashMap(snapshot.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                this.indices.put(snapshot.getPackedPos(i), i);
+            }
+        }
+
+        private void setRadius(int index, int radius) {
+            if (snapshot.getRadius(index) != radius) {
+                snapshot = snapshot.withRadius(index, radius);
+                analysis = null;
+            }
+        }
+
+        public TreeSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public Species getSpecies() {
+            return snapshot.getSpecies();
+        }
+
+        public TreeSnapshot.Analysis getAnalysis() {
+            if (analysis == null) {
+                analysis = snapshot.analyse();
+            }
+            return analysis;
+        }
+
+        /**
+         * @return The {@link Direction} from the branch at the given position towards the root of the tree, or {@code
+         * null} if the position is not part of this tree.
+         */
+        @Nullable
+        public Direction getRootDirection(BlockPos pos) {
+            final long packedPos = pos.asLong();
+            if (!indices.containsKey(packedPos)) {
+                return null;
+            }
+            final int parent = snapshot.getParent(indices.get(packedPos));
+            final BlockPos towards = parent < 0 ? snapshot.getRootPos() : snapshot.getPos(parent);
+            return Direction.fromNormal(towards.getX() - pos.getX(), towards.getY() - pos.getY(),
+                    towards.getZ() - pos.getZ());
+        }
+
+    }
+
+}
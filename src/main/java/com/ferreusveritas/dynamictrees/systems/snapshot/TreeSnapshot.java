@@ -0,0 +1,161 @@
+package com.ferreusveritas.dynamictrees.systems.snapshot;
+
+import com.ferreusveritas.dynamictrees.systems.nodemappers.NetVolumeNode;
+import com.ferreusveritas.dynamictrees.systems.nodemappers.SnapshotNode;
+import com.ferreusveritas.dynamictrees.trees.Species;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable capture of a tree's branch network. Positions are stored packed with {@link BlockPos#asLong()} next to
+ * their radius, their branch block index within the family and the index of the node they were reached from, so that
+ * the structure can be analysed and walked again without touching the world.
+ *
+ * <p>Snapshots are created by {@link SnapshotNode}.</p>
+ */
+public final class TreeSnapshot {
+
+    private final Species species;
+    private final BlockPos rootPos;
+    private final BlockPos treePos;
+    private final long gameTime;
+
+    private final long[] positions;
+    private final byte[] radii;
+    private final byte[] branchIndices;
+    private final int[] parents;
+
+    public TreeSnapshot(Species species, BlockPos rootPos, BlockPos treePos, long gameTime, long[] positions,
+                        byte[] radii, byte[] branchIndices, int[] parents) {
+        this.species = species;
+        this.rootPos = rootPos.immutable();
+        this.treePos = treePos.immutable();
+        this.gameTime = gameTime;
+        this.positions = positions;
+        this.radii = radii;
+        this.branchIndices = branchIndices;
+        this.parents = parents;
+    }
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    public BlockPos getRootPos() {
+        return rootPos;
+    }
+
+    public BlockPos getTreePos() {
+        return treePos;
+    }
+
+    /**
+     * @return The game time at which this snapshot was captured.
+     */
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    public long getPackedPos(int index) {
+        return positions[index];
+    }
+
+    public BlockPos getPos(int index) {
+        return BlockPos.of(positions[index]);
+    }
+
+    public int getRadius(int index) {
+        return radii[index];
+    }
+
+    public int getBranchIndex(int index) {
+        return branchIndices[index];
+    }
+
+    /**
+     * @return The index of the node the given node was reached from, or {@code -1} for the base of the trunk.
+     */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * @return A copy of this snapshot with the radius of the node at the given index replaced. The topology is shared
+     * with this snapshot.
+     */
+    public TreeSnapshot withRadius(int index, int radius) {
+        final byte[] newRadii = radii.clone();
+        newRadii[index] = (byte) radius;
+        return new TreeSnapshot(species, rootPos, treePos, gameTime, positions, newRadii, branchIndices, parents);
+    }
+
+    /**
+     * Analyses the captured network. This only reads the snapshot's own arrays and so is safe to call from any thread.
+     *
+     * @return The {@link Analysis} of this snapshot.
+     */
+    public Analysis analyse() {
+        final int size = size();
+        final boolean[] hasChildren = new boolean[size];
+        final NetVolumeNode.Volume volume = new NetVolumeNode.Volume();
+
+        for (int i = 0; i < size; i++) {
+            final int parent = parents[i];
+            if (parent >= 0) {
+                hasChildren[parent] = true;
+            }
+            volume.addVolume(radii[i] * radii[i] * 64, branchIndices[i]);
+        }
+
+        // A node that no other node was reached from is a branch end, as found by FindEndsNode.
+        final List<BlockPos> ends = new ArrayList<>(32);
+        for (int i = 0; i < size; i++) {
+            if (!hasChildren[i]) {
+                ends.add(BlockPos.of(positions[i]));
+            }
+        }
+
+        return new Analysis(this, ends, volume);
+    }
+
+    /**
+     * The result of {@link #analyse()}.
+     */
+    public static final class Analysis {
+
+        private final TreeSnapshot snapshot;
+        private final List<BlockPos> ends;
+        private final NetVolumeNode.Volume volume;
+
+        private Analysis(TreeSnapshot snapshot, List<BlockPos> ends, NetVolumeNode.Volume volume) {
+            this.snapshot = snapshot;
+            this.ends = ends;
+            this.volume = volume;
+        }
+
+        public TreeSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public List<BlockPos> getEnds() {
+            return Collections.unmodifiableList(ends);
+        }
+
+        public NetVolumeNode.Volume getVolume() {
+            return volume;
+        }
+
+    }
+
+}
@@ -148,21 +148,19 @@ public class HarvestSubstance implements SubstanceEffect {
 
             // Force a growth attempt of all fruit gen features.
             if (spawnAttempt) {
+                final PostGrowContext context = new PostGrowContext(
+                        world,
+                        rootPos,
+                        species,
+                        rootPos.relative(rootyBlock.getTrunkDirection(world, rootPos)),
+                        fertility,
+                        true
+                );
                 this.species.getGenFeatures().stream()
                         .filter(configuration ->
                                 configuration.getGenFeature() instanceof FruitGenFeature
                         )
-                        .forEach(configuration -> configuration.generate(
-                                GenFeature.Type.POST_GROW,
-                                new PostGrowContext(
-                                        world,
-                                        rootPos,
-                                        species,
-                                        rootPos.relative(rootyBlock.getTrunkDirection(world, rootPos)),
-                                        fertility,
-                                        true
-                                )
-                        ));
+                        .forEach(configuration -> configuration.generate(GenFeature.Type.POST_GROW, context));
             }
         }
 
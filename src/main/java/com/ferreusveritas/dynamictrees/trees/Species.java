@@ -44,6 +44,8 @@ import com.ferreusveritas.dynamictrees.init.DTTrees;
 import com.ferreusveritas.dynamictrees.items.Seed;
 import com.ferreusveritas.dynamictrees.loot.DTLootParameterSets;
 import com.ferreusveritas.dynamictrees.loot.DTLootParameters;
+import com.ferreusveritas.dynamictrees.loot.VoluntaryDropBatches;
+import com.ferreusveritas.dynamictrees.loot.VoluntaryLootContexts;
 import com.ferreusveritas.dynamictrees.models.FallingTreeEntityModel;
 import com.ferreusveritas.dynamictrees.resources.Resources;
 import com.ferreusveritas.dynamictrees.systems.GrowSignal;
@@ -54,6 +56,8 @@ import com.ferreusveritas.dynamictrees.systems.genfeatures.GenFeatureConfigurati
 import com.ferreusveritas.dynamictrees.systems.genfeatures.context.*;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.*;
 import com.ferreusveritas.dynamictrees.systems.pod.Pod;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeNetworkCache;
+import com.ferreusveritas.dynamictrees.systems.snapshot.TreeSnapshot;
 import com.ferreusveritas.dynamictrees.systems.substances.FertilizeSubstance;
 import com.ferreusveritas.dynamictrees.systems.substances.GrowthSubstance;
 import com.ferreusveritas.dynamictrees.tileentity.SpeciesTileEntity;
@@ -168,6 +172,12 @@ public class Species extends RegistryEntry<Species> implements Resettable<Specie
                               BlockPos treePos, Random random, boolean rapid) {
             return false;
         }
+
+        @Override
+        public boolean update(World world, RootyBlock rootyDirt, BlockPos rootPos, int fertility, TreePart treeBase,
+                              BlockPos treePos, Random random, boolean natural, List<BlockPos> ends) {
+            return false;
+        }
     };
 
     public static final TypedRegistry.EntryType<Species> TYPE = createDefaultType(Species::new);
@@ -735,17 +745,29 @@ public class Species extends RegistryEntry<Species> implements Resettable<Specie
         if (world.isClientSide) {
             return Collections.emptyList();
         }
-        return getLootTable(world.getServer().getLootTables(), species -> species.voluntaryDropsPath.get())
+        return getVoluntaryDropsTable(world.getServer().getLootTables())
                 .getRandomItems(createVoluntaryLootContext(world, rootPos, fertility));
     }
 
+    /**
+     * The voluntary drops table last resolved, and the {@link LootTableManager} it was resolved from. Reloading the loot
+     * tables replaces the manager, so the table is resolved again after a reload.
+     */
+    private LootTableManager voluntaryDropsTableSource;
+    private LootTable voluntaryDropsTable = EMPTY;
+
+    private LootTable getVoluntaryDropsTable(LootTableManager lootTables) {
+        if (this.voluntaryDropsTableSource != lootTables) {
+            this.voluntaryDropsTable = getLootTable(lootTables, species -> species.voluntaryDropsPath.get());
+            this.voluntaryDropsTableSource = lootTables;
+        }
+        return this.voluntaryDropsTable;
+    }
+
     private LootContext createVoluntaryLootContext(World world, BlockPos rootPos, int fertility) {
-        return new LootContext.Builder(WorldContext.getServerWorldOrThrow(world))
-                .withParameter(LootParameters.BLOCK_STATE, world.getBlockState(rootPos))
-                .withParameter(DTLootParameters.SEASONAL_SEED_DROP_FACTOR,
-                        seasonalSeedDropFactor(WorldContext.create(world), rootPos))
-                .withParameter(DTLootParameters.FERTILITY, fertility)
-                .create(DTLootParameterSets.VOLUNTARY);
+        final VoluntaryLootContexts contexts = VoluntaryLootContexts.get(world);
+        return contexts.create(world.getBlockState(rootPos),
+                seasonalSeedDropFactor(contexts.getWorldContext(), rootPos), fertility);
     }
 
     public LootTable getLootTable(LootTableManager lootTables, Function<Species, ResourceLocation> nameFunction) {
@@ -858,36 +880,78 @@ public class Species extends RegistryEntry<Species> implements Resettable<Specie
         if (tickSpeed > 0) {
             double slowFactor = 3.0 / tickSpeed;//This is an attempt to normalize voluntary drop rates.
             if (world.random.nextDouble() < slowFactor) {
+                if (DTConfigs.COALESCE_VOLUNTARY_DROPS.get()) {
+                    return this.handleCoalescedVoluntaryDrops(world, endPoints, rootPos, treePos, fertility);
+                }
+
                 final List<ItemStack> drops = getVoluntaryDrops(world, rootPos, fertility);
 
                 if (!drops.isEmpty() && !endPoints.isEmpty()) {
                     for (ItemStack drop : drops) {
-                        BlockPos branchPos = endPoints.get(world.random.nextInt(endPoints.size()));
-                        branchPos =
-                                branchPos.above();//We'll aim at the block above the end branch. Helps with Acacia leaf block formations
-                        BlockPos itemPos =
-                                CoordUtils.getRayTraceFruitPos(world, this, treePos, branchPos, SafeChunkBounds.ANY);
-
+                        BlockPos itemPos = this.findVoluntaryDropPos(world, endPoints, treePos);
                         if (itemPos != BlockPos.ZERO) {
-                            ItemEntity itemEntity = new ItemEntity(world, itemPos.getX() + 0.5, itemPos.getY() + 0.5,
-                                    itemPos.getZ() + 0.5, drop);
-                            Vector3d motion = new Vector3d(itemPos.getX(), itemPos.getY(), itemPos.getZ()).subtract(
-                                    new Vector3d(treePos.getX(), treePos.getY(), treePos.getZ()));
-                            float distAngle = 15;//The spread angle(center to edge)
-                            float launchSpeed = 4;//Blocks(meters) per second
-                            motion = new Vector3d(motion.x, 0, motion.y).normalize()
-                                    .yRot((world.random.nextFloat() * distAngle * 2) - distAngle)
-                                    .scale(launchSpeed / 20f);
-                            itemEntity.setDeltaMovement(motion.x, motion.y, motion.z);
-                            return world.addFreshEntity(itemEntity);
+                            return this.spawnVoluntaryDrop(world, treePos, itemPos, drop);
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rolls the voluntary drops for a growth pulse through {@link #getVoluntaryDrops(World, BlockPos, int)} and keeps
+     * the same stack the regular path would spawn, but adds it to the tree's {@link VoluntaryDropBatches batch}
+     * instead. Once the batch is complete its merged stacks are spawned together, so drop rates are unchanged while a
+     * tree spawns item entities several times less often.
+     */
+    private boolean handleCoalescedVoluntaryDrops(World world, List<BlockPos> endPoints, BlockPos rootPos,
+                                                  BlockPos treePos, int fertility) {
+        final List<ItemStack> drops = this.getVoluntaryDrops(world, rootPos, fertility);
+
+        if (!drops.isEmpty() && !endPoints.isEmpty()) {
+            for (ItemStack drop : drops) {
+                final BlockPos itemPos = this.findVoluntaryDropPos(world, endPoints, treePos);
+                if (itemPos != BlockPos.ZERO) {
+                    final List<ItemStack> batch = VoluntaryDropBatches.get(world).add(rootPos, drop,
+                            DTConfigs.COALESCED_VOLUNTARY_DROP_PULSES.get());
+                    boolean spawned = true;
+                    if (batch != null) {
+                        for (ItemStack stack : batch) {
+                            spawned &= this.spawnVoluntaryDrop(world, treePos, itemPos, stack);
                         }
                     }
+                    return spawned;
                 }
             }
         }
         return true;
     }
 
+    /**
+     * @return The position a voluntary drop should spawn at, found by aiming at the block above a random end point, or
+     * {@link BlockPos#ZERO} if no position was found.
+     */
+    private BlockPos findVoluntaryDropPos(World world, List<BlockPos> endPoints, BlockPos treePos) {
+        BlockPos branchPos = endPoints.get(world.random.nextInt(endPoints.size()));
+        branchPos = branchPos.above();//We'll aim at the block above the end branch. Helps with Acacia leaf block formations
+        return CoordUtils.getRayTraceFruitPos(world, this, treePos, branchPos, SafeChunkBounds.ANY);
+    }
+
+    private boolean spawnVoluntaryDrop(World world, BlockPos treePos, BlockPos itemPos, ItemStack drop) {
+        ItemEntity itemEntity = new ItemEntity(world, itemPos.getX() + 0.5, itemPos.getY() + 0.5,
+                itemPos.getZ() + 0.5, drop);
+        Vector3d motion = new Vector3d(itemPos.getX(), itemPos.getY(), itemPos.getZ()).subtract(
+                new Vector3d(treePos.getX(), treePos.getY(), treePos.getZ()));
+        float distAngle = 15;//The spread angle(center to edge)
+        float launchSpeed = 4;//Blocks(meters) per second
+        motion = new Vector3d(motion.x, 0, motion.y).normalize()
+                .yRot((world.random.nextFloat() * distAngle * 2) - distAngle)
+                .scale(launchSpeed / 20f);
+        itemEntity.setDeltaMovement(motion.x, motion.y, motion.z);
+        return world.addFreshEntity(itemEntity);
+    }
+
 
     ///////////////////////////////////////////
     // SAPLING
@@ -1301,7 +1365,19 @@ public class Species extends RegistryEntry<Species> implements Resettable<Specie
                           BlockPos treePos, Random random, boolean natural) {
 
         //Analyze structure to gather all of the endpoints.  They will be useful for this entire update
-        List<BlockPos> ends = getEnds(world, treePos, treeBase);
+        return this.update(world, rootyDirt, rootPos, fertility, treeBase, treePos, random, natural,
+                getEnds(world, rootPos, treePos, treeBase));
+    }
+
+    /**
+     * Basic update with the branch endpoints already known, such as from a {@link TreeSnapshot}.
+     *
+     * @param ends A mutable {@link List} of the {@link BlockPos}s of all branch endpoints. Rotted endpoints are removed
+     *             from it.
+     * @see #update(World, RootyBlock, BlockPos, int, TreePart, BlockPos, Random, boolean)
+     */
+    public boolean update(World world, RootyBlock rootyDirt, BlockPos rootPos, int fertility, TreePart treeBase,
+                          BlockPos treePos, Random random, boolean natural, List<BlockPos> ends) {
 
         //This will prune rotted positions from the world and the end point list
         if (handleRot(world, ends, rootPos, treePos, fertility, SafeChunkBounds.ANY)) {
@@ -1322,7 +1398,26 @@ public class Species extends RegistryEntry<Species> implements Resettable<Specie
     }
 
     /**
-     * A little internal convenience function for getting branch endpoints
+     * A little internal convenience function for getting branch endpoints, served from the {@link TreeNetworkCache}
+     * when it is enabled.
+     *
+     * @param world    The world
+     * @param rootPos  The {@link BlockPos} of the {@link RootyBlock} for this tree
+     * @param treePos  The {@link BlockPos} of the base of the {@link Family} trunk
+     * @param treeBase The tree part that is the base of the {@link Family} trunk.  Provided for easy analysis.
+     * @return A mutable list of all branch endpoints for the {@link Family}
+     */
+    final protected List<BlockPos> getEnds(World world, BlockPos rootPos, BlockPos treePos, TreePart treeBase) {
+        final TreeNetworkCache cache = TreeNetworkCache.get(world);
+        if (cache == null) {
+            return getEnds(world, treePos, treeBase);
+        }
+        // The cached list is shared, so copy it as the caller may prune it.
+        return new ArrayList<>(cache.getOrCapture(world, rootPos, treePos, treeBase, this).getAnalysis().getEnds());
+    }
+
+    /**
+     * A little internal convenience function for getting branch endpoints, bypassing the {@link TreeNetworkCache}.
      *
      * @param world    The world
      * @param treePos  The {@link BlockPos} of the base of the {@link Family} trunk
@@ -1553,11 +1648,10 @@ public class Species extends RegistryEntry<Species> implements Resettable<Specie
      *                  the potion of burgeoning.
      */
     public boolean postGrow(World world, BlockPos rootPos, BlockPos treePos, int fertility, boolean natural) {
+        // Shared by all features so that the tree is analysed at most once.
+        final PostGrowContext context = new PostGrowContext(world, rootPos, this, treePos, fertility, natural);
         this.genFeatures.forEach(configuration ->
-                configuration.generate(
-                        GenFeature.Type.POST_GROW,
-                        new PostGrowContext(world, rootPos, this, treePos, fertility, natural)
-                ));
+                configuration.generate(GenFeature.Type.POST_GROW, context));
         return true;
     }
 
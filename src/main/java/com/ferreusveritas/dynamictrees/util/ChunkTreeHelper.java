@@ -9,6 +9,9 @@ import com.ferreusveritas.dynamictrees.blocks.branches.SurfaceRootBlock;
 import com.ferreusveritas.dynamictrees.blocks.rootyblocks.RootyBlock;
 import com.ferreusveritas.dynamictrees.entities.FallingTreeEntity;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.CollectorNode;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -25,9 +28,7 @@ import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -39,6 +40,9 @@ public class ChunkTreeHelper {
 
     /**
      * Removes floating little bits of tree that have somehow lost connection with their parent root system.
+     * <p>
+     * Rather than testing every block in the area, the palettes of chunk sections are checked first so only sections
+     * containing branches are scanned. Branches of networks already proven healthy are skipped.
      *
      * @param chunkPos the chunk position where the effect is intended
      * @param radius   radius of effect in chunk width units
@@ -48,58 +52,124 @@ public class ChunkTreeHelper {
             throw new NullPointerException("Null chunk position");
         }
 
-        Set<BlockPos> found = new HashSet<>(); // This is used to track branches that are already proven
         final BlockBounds bounds = getEffectiveBlockBounds(world, chunkPos, radius);
+        final LongArrayList branches = findBranches(world, bounds);
+        final LongSet found = new LongOpenHashSet(); // This is used to track branches that are already proven
+        final BlockPos.Mutable pos = new BlockPos.Mutable();
         int orphansCleared = 0;
 
-        for (BlockPos pos : bounds) {
-            final BlockState state = world.getBlockState(pos);
-            final Optional<BranchBlock> branchBlock = TreeHelper.getBranchOpt(state);
+        for (int i = 0; i < branches.size(); i++) {
+            final long packedPos = branches.getLong(i);
+            if (found.contains(packedPos)) {
+                continue; // Already proven.
+            }
 
+            pos.set(packedPos);
+            final Optional<BranchBlock> branchBlock = TreeHelper.getBranchOpt(world.getBlockState(pos));
             if (!branchBlock.isPresent()) {
-                continue; // No branch block found at this position.  Move on
+                continue; // Destroyed along with an orphaned network.
             }
 
-            // Test if the branch has a root node attached to it
-            BlockPos rootPos = TreeHelper.findRootNode(world, pos);
-            if (rootPos == BlockPos.ZERO) { // If the root position is the ORIGIN object it means that no root block was found
-                // If the root node isn't found then all nodes are orphan.  Destroy the entire network.
-                doTreeDestroy(world, branchBlock.get(), pos);
+            if (checkForOrphans(world, branchBlock.get(), pos.immutable(), found) == OrphanCheck.DESTROYED) {
                 orphansCleared++;
-                continue;
             }
+        }
 
-            // There is at least one root block in the network
-            BlockState rootyState = world.getBlockState(rootPos);
-            Optional<RootyBlock> rootyBlock = TreeHelper.getRootyOpt(rootyState);
-            if (!rootyBlock.isPresent()) {
-                continue; // This theoretically shouldn't ever happen
-            }
+        return orphansCleared;
+    }
 
-            // Rooty block confirmed, build details about the trunk coming out of it
-            Direction trunkDir = rootyBlock.get().getTrunkDirection(world, rootPos);
-            BlockPos trunkPos = rootPos.relative(trunkDir);
-            BlockState trunkState = world.getBlockState(trunkPos);
-            Optional<BranchBlock> trunk = TreeHelper.getBranchOpt(trunkState);
+    private enum OrphanCheck {
+        HEALTHY,
+        DESTROYED,
+        UNRESOLVED
+    }
 
-            if (!trunk.isPresent()) {
-                continue; // This theoretically shouldn't ever happen
-            }
+    /**
+     * Destroys the network of the branch at the given position if it has no root or several roots. Otherwise adds the
+     * positions of the healthy network to the found set.
+     */
+    private static OrphanCheck checkForOrphans(World world, BranchBlock branchBlock, BlockPos pos, LongSet found) {
+        // Test if the branch has a root node attached to it
+        BlockPos rootPos = TreeHelper.findRootNode(world, pos);
+        if (rootPos == BlockPos.ZERO) { // If the root position is the ORIGIN object it means that no root block was found
+            // If the root node isn't found then all nodes are orphan.  Destroy the entire network.
+            doTreeDestroy(world, branchBlock, pos);
+            return OrphanCheck.DESTROYED;
+        }
 
-            // There's a trunk coming out of the rooty block, that's kinda expected.  But is it the only rooty block in the network?
-            MapSignal signal = new MapSignal();
-            signal.destroyLoopedNodes = false;
-            trunk.get().analyse(trunkState, world, trunkPos, null, signal);
-            if (signal.multiroot ||
-                    signal.overflow) { // We found multiple root nodes.  This can't be resolved. Destroy the entire network
-                doTreeDestroy(world, branchBlock.get(), pos);
-                orphansCleared++;
-            } else { // Tree appears healthy with only a single attached root block
-                trunk.get().analyse(trunkState, world, trunkPos, null, new MapSignal(new CollectorNode(found)));
+        // There is at least one root block in the network
+        BlockState rootyState = world.getBlockState(rootPos);
+        Optional<RootyBlock> rootyBlock = TreeHelper.getRootyOpt(rootyState);
+        if (!rootyBlock.isPresent()) {
+            return OrphanCheck.UNRESOLVED; // This theoretically shouldn't ever happen
+        }
+
+        // Rooty block confirmed, build details about the trunk coming out of it
+        Direction trunkDir = rootyBlock.get().getTrunkDirection(world, rootPos);
+        BlockPos trunkPos = rootPos.relative(trunkDir);
+        BlockState trunkState = world.getBlockState(trunkPos);
+        Optional<BranchBlock> trunk = TreeHelper.getBranchOpt(trunkState);
+
+        if (!trunk.isPresent()) {
+            return OrphanCheck.UNRESOLVED; // This theoretically shouldn't ever happen
+        }
+
+        // There's a trunk coming out of the rooty block, that's kinda expected.  But is it the only rooty block in the network?
+        MapSignal signal = new MapSignal();
+        signal.destroyLoopedNodes = false;
+        trunk.get().analyse(trunkState, world, trunkPos, null, signal);
+        if (signal.multiroot ||
+                signal.overflow) { // We found multiple root nodes.  This can't be resolved. Destroy the entire network
+            doTreeDestroy(world, branchBlock, pos);
+            return OrphanCheck.DESTROYED;
+        }
+
+        // Tree appears healthy with only a single attached root block
+        trunk.get().analyse(trunkState, world, trunkPos, null, new MapSignal(new CollectorNode(found)));
+        return OrphanCheck.HEALTHY;
+    }
+
+    /**
+     * Finds the positions of all branches within the given bounds, skipping chunk sections whose palette has no
+     * branches.
+     */
+    private static LongArrayList findBranches(World world, BlockBounds bounds) {
+        final LongArrayList branches = new LongArrayList();
+        final BlockPos min = bounds.getMin();
+        final BlockPos max = bounds.getMax();
+
+        for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+            for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+                final Chunk chunk = world.getChunk(chunkX, chunkZ);
+
+                for (final ChunkSection section : chunk.getSections()) {
+                    if (ChunkSection.isEmpty(section) || !section.maybeHas(TreeHelper::isBranch)) {
+                        continue;
+                    }
+
+                    final int sectionY = section.bottomBlockY();
+                    if (sectionY + 15 < min.getY() || sectionY > max.getY()) {
+                        continue;
+                    }
+
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            for (int x = 0; x < 16; x++) {
+                                if (!TreeHelper.isBranch(section.getBlockState(x, y, z))) {
+                                    continue;
+                                }
+                                final BlockPos pos = new BlockPos((chunkX << 4) + x, sectionY + y, (chunkZ << 4) + z);
+                                if (bounds.inBounds(pos)) {
+                                    branches.add(pos.asLong());
+                                }
+                            }
+                        }
+                    }
+                }
             }
         }
 
-        return orphansCleared;
+        return branches;
     }
 
     public static int removeAllBranchesFromChunk(World world, @Nullable ChunkPos chunkPos, int radius) {
@@ -0,0 +1,89 @@
+package com.ferreusveritas.dynamictrees.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IServerWorld;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded per-dimension cache of noise biomes at the 4x4x4 cell resolution biomes are generated at, so climate
+ * checks such as whether a tree is tropical or should be snowed on don't sample the biome noise every time.
+ *
+ * <p>Noise biomes only depend on the seed and position, so cached biomes never go stale. Cells are keyed by their
+ * height as well, so biome sources that vary with height are cached correctly. When full, the least recently used cell
+ * is evicted. Only server side worlds are cached; client side lookups are passed straight through.</p>
+ */
+public final class ClimateCache {
+
+    /**
+     * The number of cells cached per dimension, covering about 16 by 16 chunks at a single height.
+     */
+    private static final int CAPACITY = 4096;
+
+    private static final Map<RegistryKey<World>, ClimateCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Long2ObjectLinkedOpenHashMap<Biome> biomes = new Long2ObjectLinkedOpenHashMap<>(CAPACITY);
+
+    private ClimateCache() {
+    }
+
+    /**
+     * Gets the noise biome of the cell at the given quart position (block position shifted right by 2),
+     * sampling it if it isn't cached.
+     *
+     * @param world The {@link IWorld} to get the biome for.
+     * @return The noise biome of the cell.
+     */
+    public static Biome getNoiseBiome(IWorld world, int quartX, int quartY, int quartZ) {
+        final ClimateCache cache = get(world);
+        if (cache == null) {
+            return world.getUncachedNoiseBiome(quartX, quartY, quartZ);
+        }
+
+        final long key = BlockPos.asLong(quartX, quartY, quartZ);
+        final Biome cached = cache.getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Sample outside of the lock so world generation threads don't wait on each other's noise.
+        final Biome biome = world.getUncachedNoiseBiome(quartX, quartY, quartZ);
+        cache.put(key, biome);
+        return biome;
+    }
+
+    @Nullable
+    private static ClimateCache get(IWorld world) {
+        if (world.isClientSide() || !(world instanceof IServerWorld)) {
+            return null;
+        }
+        return CACHES.computeIfAbsent(((IServerWorld) world).getLevel().dimension(), key -> new ClimateCache());
+    }
+
+    @Nullable
+    private synchronized Biome getCached(long key) {
+        return this.biomes.getAndMoveToLast(key);
+    }
+
+    private synchronized void put(long key, Biome biome) {
+        if (this.biomes.size() >= CAPACITY && !this.biomes.containsKey(key)) {
+            this.biomes.removeFirst();
+        }
+        this.biomes.putAndMoveToLast(key, biome);
+    }
+
+    /**
+     * Discards the cached cells of the given world. Called when the world is unloaded.
+     */
+    public static void unloadWorld(World world) {
+        CACHES.remove(world.dimension());
+    }
+
+}
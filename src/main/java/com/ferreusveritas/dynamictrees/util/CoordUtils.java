@@ -35,6 +35,12 @@ public final class CoordUtils {
 
     public static final Direction[] HORIZONTALS = {Direction.SOUTH, Direction.WEST, Direction.NORTH, Direction.EAST};
 
+    /**
+     * All directions in {@link Direction#values()} order. Use this instead of {@link Direction#values()} in hot code,
+     * as that clones its array on every call. Must not be modified.
+     */
+    public static final Direction[] DIRECTIONS = Direction.values();
+
     public enum Surround implements IStringSerializable {
         N("n", Direction.NORTH),
         NW("nw", Direction.NORTH, Direction.WEST),
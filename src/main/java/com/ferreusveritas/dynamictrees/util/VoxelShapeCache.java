@@ -0,0 +1,66 @@
+package com.ferreusveritas.dynamictrees.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.shapes.VoxelShape;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * A bounded cache of {@link VoxelShape}s keyed by a long packing every input the shape depends on, such as the radius
+ * of a branch and the radii of its connections. Blocks such as branches combine several boxes into their shape, which
+ * is queried constantly for collisions, ray traces and outlines, while only a few combinations occur in practice.
+ *
+ * <p>Shapes are created from the key alone by the factory given to the cache, so looking up a cached shape allocates
+ * nothing, not even a boxed key. Once the cache is full new combinations are created on every lookup rather than
+ * cached. Caches are safe to use from any thread; lookups share a read lock and only new shapes take the write lock.</p>
+ */
+public final class VoxelShapeCache {
+
+    private static final int DEFAULT_MAX_SIZE = 2048;
+
+    private final Long2ObjectOpenHashMap<VoxelShape> shapes = new Long2ObjectOpenHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private final LongFunction<VoxelShape> factory;
+    private final int maxSize;
+
+    public VoxelShapeCache(LongFunction<VoxelShape> factory) {
+        this(factory, DEFAULT_MAX_SIZE);
+    }
+
+    public VoxelShapeCache(LongFunction<VoxelShape> factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The shape for the given key, creating it if it isn't cached.
+     */
+    public VoxelShape get(long key) {
+        long stamp = this.lock.readLock();
+        try {
+            final VoxelShape cached = this.shapes.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+
+        final VoxelShape shape = this.factory.apply(key);
+        stamp = this.lock.writeLock();
+        try {
+            final VoxelShape existing = this.shapes.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (this.shapes.size() < this.maxSize) {
+                this.shapes.put(key, shape);
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+        return shape;
+    }
+
+}
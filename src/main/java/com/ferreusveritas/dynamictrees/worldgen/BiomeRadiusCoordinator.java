@@ -10,6 +10,7 @@ import net.minecraft.world.gen.PerlinNoiseGenerator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 import java.util.function.Function;
 
 public class BiomeRadiusCoordinator implements RadiusCoordinator {
@@ -18,8 +19,10 @@ public class BiomeRadiusCoordinator implements RadiusCoordinator {
     protected final TreeGenerator treeGenerator;
     protected final IWorld world;
     protected final ResourceLocation dimRegName;
-    protected int pass;
-    protected Function<Integer, Integer> chunkMultipass;
+    /**
+     * The pass state of the chunk being generated, held per thread as chunks may be generated concurrently.
+     */
+    protected final ThreadLocal<PassState> passState = ThreadLocal.withInitial(PassState::new);
 
     public BiomeRadiusCoordinator(TreeGenerator treeGenerator, ResourceLocation dimRegName, IWorld world) {
         this.noiseGenerator = new PerlinNoiseGenerator(new SharedSeedRandom(96), new ArrayList<>(Collections.singletonList(1)));
@@ -30,7 +33,8 @@ public class BiomeRadiusCoordinator implements RadiusCoordinator {
 
     @Override
     public int getRadiusAtCoords(int x, int z) {
-        int rad = this.chunkMultipass.apply(pass);
+        final PassState state = this.passState.get();
+        int rad = state.chunkMultipass.apply(state.pass);
         if (rad >= 2 && rad <= 8) {
             return rad;
         }
@@ -39,8 +43,12 @@ public class BiomeRadiusCoordinator implements RadiusCoordinator {
         final Biome biome = this.world.getUncachedNoiseBiome((x + 8) >> 2, 0, (z + 8) >> 2); // Placement is offset by +8,+8
 
         final double noiseDensity = (this.noiseGenerator.getValue(x / scale, z / scale, false) + 1D) / 2.0D; // Gives 0.0 to 1.0
+        // Seeded from the position rather than using the shared world random, so the radius doesn't depend on the
+        // order or thread chunks are generated in.
+        final Random random = state.random;
+        random.setSeed(x * 341873128712L + z * 132897987541L);
         final double density = BiomeDatabases.getDimensionalOrDefault(this.dimRegName)
-                .getDensitySelector(biome).getDensity(this.world.getRandom(), noiseDensity);
+                .getDensitySelector(biome).getDensity(random, noiseDensity);
         final double size = ((1.0 - density) * 9); // Size is the inverse of density (gives 0 to 9)
 
         // Oh Joy. Random can potentially start with the same number for each chunk. Let's just
@@ -54,14 +62,21 @@ public class BiomeRadiusCoordinator implements RadiusCoordinator {
 
     @Override
     public boolean runPass(int chunkX, int chunkZ, int pass) {
-        this.pass = pass;
+        final PassState state = this.passState.get();
+        state.pass = pass;
 
         if (pass == 0) {
             final Biome biome = this.world.getUncachedNoiseBiome(((chunkX << 4) + 8) >> 2, 0, ((chunkZ << 4) + 8) >> 2); // Aim at center of chunk
-            this.chunkMultipass = BiomeDatabases.getDimensionalOrDefault(this.dimRegName).getMultipass(biome);
+            state.chunkMultipass = BiomeDatabases.getDimensionalOrDefault(this.dimRegName).getMultipass(biome);
         }
 
-        return this.chunkMultipass.apply(pass) >= 0;
+        return state.chunkMultipass.apply(pass) >= 0;
+    }
+
+    protected static final class PassState {
+        protected int pass;
+        protected Function<Integer, Integer> chunkMultipass;
+        protected final Random random = new Random();
     }
 
 }
@@ -11,6 +11,7 @@ import com.ferreusveritas.dynamictrees.cells.LeafClusters;
 import com.ferreusveritas.dynamictrees.compat.seasons.SeasonHelper;
 import com.ferreusveritas.dynamictrees.data.DTBlockTags;
 import com.ferreusveritas.dynamictrees.event.SpeciesPostGenerationEvent;
+import com.ferreusveritas.dynamictrees.init.DTConfigs;
 import com.ferreusveritas.dynamictrees.systems.genfeatures.context.PostGenerationContext;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.CoderNode;
 import com.ferreusveritas.dynamictrees.systems.nodemappers.CollectorNode;
@@ -18,10 +19,12 @@ import com.ferreusveritas.dynamictrees.systems.nodemappers.FindEndsNode;
 import com.ferreusveritas.dynamictrees.trees.Family;
 import com.ferreusveritas.dynamictrees.trees.Species;
 import com.ferreusveritas.dynamictrees.util.BlockStates;
+import com.ferreusveritas.dynamictrees.util.ClimateCache;
 import com.ferreusveritas.dynamictrees.util.SafeChunkBounds;
 import com.ferreusveritas.dynamictrees.util.SimpleVoxmap;
 import com.ferreusveritas.dynamictrees.util.SimpleVoxmap.Cell;
 import com.ferreusveritas.dynamictrees.util.WorldContext;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.material.Material;
@@ -43,6 +46,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static net.minecraft.tags.BlockTags.LOGS;
 
@@ -64,6 +69,12 @@ public class JoCode {
     public byte[] instructions = new byte[0];
     protected boolean careful = false;//If true the code checks for surrounding branches while building to avoid making frankentrees.  Safer but slower.
 
+    /**
+     * Precompiled {@link JoCodeTemplate templates} of this code for each species it was generated as, indexed by
+     * {@link #templateIndex(Direction, int)}.
+     */
+    private final Map<Species, AtomicReferenceArray<JoCodeTemplate>> templates = new ConcurrentHashMap<>();
+
     /**
      * @param world   The world
      * @param rootPos Block position of rootyDirt block
@@ -103,7 +114,7 @@ public class JoCode {
     /**
      * A facing matrix for mapping instructions to different rotations
      */
-    private final byte[][] dirmap = {
+    private static final byte[][] DIR_MAP = {
             //  {D, U, N, S, W, E, F, R}
             {0, 1, 2, 3, 4, 5, 6, 7},//FACING DOWN:	 Same as NORTH
             {0, 1, 2, 3, 4, 5, 6, 7},//FACING UP:	 Same as NORTH
@@ -114,31 +125,51 @@ public class JoCode {
     };
 
     //"Pointers" to the current rotation direction.
-    private byte[] facingMap = dirmap[2];//Default to NORTH(Effectively an identity matrix)
-    private byte[] unfacingMap = dirmap[2];//Default to NORTH(Effectively an identity matrix)
+    private byte[] facingMap = DIR_MAP[2];//Default to NORTH(Effectively an identity matrix)
+    private byte[] unfacingMap = DIR_MAP[2];//Default to NORTH(Effectively an identity matrix)
 
     /**
      * Get the instruction at a locus. Automatically performs rotation based on what facing matrix is selected.
      *
      * @param pos
      * @return
+     * @deprecated The facing matrix is shared by every thread using this code, use {@link #getCode(int, Direction)}.
      */
+    @Deprecated
     protected int getCode(int pos) {
         return unfacingMap[instructions[pos]];
     }
 
+    /**
+     * Get the instruction at a locus, rotated to the given facing.
+     */
+    protected int getCode(int pos, Direction facing) {
+        return unfacingMap(facing)[instructions[pos]];
+    }
+
     /**
      * Sets the active facing matrix to a specific direction
      *
      * @param facing
      * @return
+     * @deprecated Codes are shared, for example by the {@link JoCodeRegistry}, and generated from several threads at
+     * once, so the facing is now passed to each method that needs it instead.
      */
+    @Deprecated
     public JoCode setFacing(Direction facing) {
+        facingMap = facingMap(facing);
+        unfacingMap = unfacingMap(facing);
+        return this;
+    }
+
+    private static byte[] facingMap(Direction facing) {
+        return DIR_MAP[facing.ordinal()];
+    }
+
+    private static byte[] unfacingMap(Direction facing) {
         int faceNum = facing.ordinal();
-        facingMap = dirmap[faceNum];
         faceNum = (faceNum == 4) ? 5 : (faceNum == 5) ? 4 : faceNum;//Swap West and East
-        unfacingMap = dirmap[faceNum];
-        return this;
+        return DIR_MAP[faceNum];
     }
 
     /**
@@ -148,10 +179,11 @@ public class JoCode {
      * @return
      */
     public JoCode rotate(Direction dir) {
-        setFacing(dir);
+        final byte[] facingMap = facingMap(dir);
         for (int c = 0; c < instructions.length; c++) {
             instructions[c] = facingMap[instructions[c]];
         }
+        templates.clear();
         return this;
     }
 
@@ -172,7 +204,6 @@ public class JoCode {
         // A Tree generation boundary radius is at least 2 and at most 8.
         radius = MathHelper.clamp(radius, 2, 8);
 
-        this.setFacing(facing);
         final BlockPos rootPos = species.preGeneration(world, rootPosIn, radius, facing, safeBounds, this);
 
         if (rootPos == BlockPos.ZERO) {
@@ -182,12 +213,24 @@ public class JoCode {
         final BlockState initialDirtState = world.getBlockState(rootPos); // Save the initial state of the dirt in case this fails.
         species.placeRootyDirtBlock(world, rootPos, 0); // Set to unfertilized rooty dirt.
 
-        // Make the tree branch structure.
-        this.generateFork(world, species, 0, rootPos, false);
-
         // Establish a position for the bottom block of the trunk.
         final BlockPos treePos = rootPos.above();
 
+        // Templates are only used for plain world generation, where the code is generated without extra checks.
+        final int templateIndex = worldGen && !this.careful && this.getClass() == JoCode.class &&
+                DTConfigs.JO_CODE_TEMPLATES.get() ? templateIndex(facing, radius) : -1;
+
+        // Stamp the precompiled template of this code if nothing is in its way.
+        final JoCodeTemplate template = templateIndex != -1 ? this.getTemplates(species).get(templateIndex) : null;
+        if (template != null && template != JoCodeTemplate.INVALID && template.stamp(world, species, treePos, this)) {
+            this.finishGeneration(worldContext, species, rootPos, treePos, biome, radius, safeBounds, worldGen,
+                    initialDirtState, template.getEndPoints(treePos), template.createLeafMap(treePos, radius));
+            return;
+        }
+
+        // Make the tree branch structure.
+        this.generateFork(world, species, 0, rootPos, facing, false);
+
         // Fix branch thicknesses and map out leaf locations.
         final BlockState treeState = world.getBlockState(treePos);
         final BranchBlock firstBranch = TreeHelper.getBranch(treeState);
@@ -204,7 +247,9 @@ public class JoCode {
         final SimpleVoxmap leafMap = new SimpleVoxmap(radius * 2 + 1, species.getWorldGenLeafMapHeight(), radius * 2 + 1).setMapAndCenter(treePos, new BlockPos(radius, 0, radius));
         final NodeInspector inflator = species.getNodeInflator(leafMap); // This is responsible for thickening the branches.
         final FindEndsNode endFinder = new FindEndsNode(); // This is responsible for gathering a list of branch end points.
-        final MapSignal signal = new MapSignal(inflator, endFinder); // The inflator signal will "paint" a temporary voxmap of all of the leaves and branches.
+        final CollectorNode collector = templateIndex != -1 && template == null ? new CollectorNode() : null; // Gathers the analysed branches if this tree may become the template.
+        final MapSignal signal = collector != null ? new MapSignal(inflator, endFinder, collector) :
+                new MapSignal(inflator, endFinder); // The inflator signal will "paint" a temporary voxmap of all of the leaves and branches.
         signal.destroyLoopedNodes = this.careful;
 
         firstBranch.analyse(treeState, world, treePos, Direction.DOWN, signal);
@@ -218,6 +263,27 @@ public class JoCode {
 
         this.smother(leafMap, leavesProperties); // Use the voxmap to precompute leaf smothering so we don't have to age it as many times.
 
+        if (collector != null) {
+            final JoCodeTemplate captured = JoCodeTemplate.capture(world, treePos, this.getBranchPositions(rootPos, facing),
+                    collector.getPackedNodes(), leafMap, endPoints);
+            if (captured != null) {
+                this.getTemplates(species).compareAndSet(templateIndex, null, captured);
+            }
+        }
+
+        this.finishGeneration(worldContext, species, rootPos, treePos, biome, radius, safeBounds, worldGen,
+                initialDirtState, endPoints, leafMap);
+    }
+
+    /**
+     * Places the leaves of a tree whose branches have been generated, then ages, rots and decorates it.
+     *
+     * @param leafMap The smothered leaf map of the tree.
+     */
+    private void finishGeneration(WorldContext worldContext, Species species, BlockPos rootPos, BlockPos treePos, Biome biome, int radius, SafeChunkBounds safeBounds, boolean worldGen, BlockState initialDirtState, List<BlockPos> endPoints, SimpleVoxmap leafMap) {
+        final IWorld world = worldContext.access();
+        final LeavesProperties leavesProperties = species.getLeavesProperties();
+
         // Place Growing Leaves Blocks from voxmap.
         for (final Cell cell : leafMap.getAllNonZeroCells((byte) 0x0F)) { // Iterate through all of the cells that are leaves (not air or branches).
             final BlockPos.Mutable cellPos = cell.getPos();
@@ -281,13 +347,53 @@ public class JoCode {
         }
     }
 
+    private static int templateIndex(Direction facing, int radius) {
+        final int horizontalIndex = facing.get2DDataValue();
+        return horizontalIndex == -1 ? -1 : horizontalIndex * 7 + radius - 2; // Radius is clamped to [2, 8].
+    }
+
+    private AtomicReferenceArray<JoCodeTemplate> getTemplates(Species species) {
+        return this.templates.computeIfAbsent(species, s -> new AtomicReferenceArray<>(4 * 7));
+    }
+
+    /**
+     * Gets the position of every branch this code places when generated at the given root position and facing, in the
+     * order {@link #generateFork(IWorld, Species, int, BlockPos, Direction, boolean)} places them.
+     */
+    protected List<BlockPos> getBranchPositions(BlockPos rootPos, Direction facing) {
+        final List<BlockPos> positions = new ArrayList<>();
+        this.collectBranchPositions(0, rootPos, facing, positions);
+        return positions;
+    }
+
+    private int collectBranchPositions(int codePos, BlockPos pos, Direction facing, List<BlockPos> positions) {
+        while (codePos < instructions.length) {
+            final int code = this.getCode(codePos, facing);
+
+            switch (code) {
+                case FORK_CODE:
+                    codePos = this.collectBranchPositions(codePos + 1, pos, facing, positions);
+                    break;
+                case RETURN_CODE:
+                    return codePos + 1;
+                default:
+                    pos = pos.relative(Direction.from3DDataValue(code));
+                    positions.add(pos);
+                    codePos++;
+                    break;
+            }
+        }
+
+        return codePos;
+    }
+
     /**
      * Attempt to clean up fused trees that have multiple root blocks by simply destroying them both messily
      */
     protected void cleanupFrankentree(IWorld world, BlockPos treePos, BlockState treeState, List<BlockPos> endPoints, SafeChunkBounds safeBounds) {
-        final Set<BlockPos> blocksToDestroy = new HashSet<>();
+        final CollectorNode blocksToDestroy = new CollectorNode();
         final BranchBlock branch = TreeHelper.getBranch(treeState);
-        final MapSignal signal = new MapSignal(new CollectorNode(blocksToDestroy));
+        final MapSignal signal = new MapSignal(blocksToDestroy);
 
         signal.destroyLoopedNodes = false;
         signal.trackVisited = true;
@@ -297,7 +403,10 @@ public class JoCode {
         branch.analyse(treeState, world, treePos, null, signal);
         BranchBlock.destroyMode = DynamicTrees.DestroyMode.IGNORE;
 
-        for (BlockPos pos : blocksToDestroy) {
+        final BlockPos.Mutable pos = new BlockPos.Mutable();
+        final LongIterator iterator = blocksToDestroy.getPackedNodes().iterator();
+        while (iterator.hasNext()) {
+            pos.set(iterator.nextLong());
             if (safeBounds.inBounds(pos, false)) {
                 final BlockState branchState = world.getBlockState(pos);
                 final Optional<BranchBlock> branchBlock = TreeHelper.getBranchOpt(branchState);
@@ -356,16 +465,17 @@ public class JoCode {
      * @param species
      * @param codePos
      * @param pos
+     * @param facing   The direction the tree faces.
      * @param disabled
      * @return
      */
-    protected int generateFork(IWorld world, Species species, int codePos, BlockPos pos, boolean disabled) {
+    protected int generateFork(IWorld world, Species species, int codePos, BlockPos pos, Direction facing, boolean disabled) {
         while (codePos < instructions.length) {
-            final int code = this.getCode(codePos);
+            final int code = this.getCode(codePos, facing);
 
             switch (code) {
                 case FORK_CODE:
-                    codePos = this.generateFork(world, species, codePos + 1, pos, disabled);
+                    codePos = this.generateFork(world, species, codePos + 1, pos, facing, disabled);
                     break;
                 case RETURN_CODE:
                     return codePos + 1;
@@ -384,12 +494,7 @@ public class JoCode {
     }
 
     protected boolean setBlockForGeneration(IWorld world, Species species, BlockPos pos, Direction dir, boolean careful, @SuppressWarnings("unused") boolean isLast) {
-        final BlockState state = world.getBlockState(pos);
-        if (((state.canBeReplacedByLogs(world, pos) && !state.getBlock().is(LOGS)) ||
-                state.getMaterial().isLiquid() ||
-                state.getBlock().is(DTBlockTags.FOLIAGE) ||
-                state.getBlock().is(BlockTags.FLOWERS)) &&
-                (!careful || this.isClearOfNearbyBranches(world, pos, dir.getOpposite()))) {
+        if (this.canReplaceForGeneration(world, pos) && (!careful || this.isClearOfNearbyBranches(world, pos, dir.getOpposite()))) {
             species.getFamily().getBranchForPlacement(world, species, pos).ifPresent(branch ->
                     branch.setRadius(world, pos, species.getFamily().getPrimaryThickness(), null, careful ? 3 : 2)
             );
@@ -398,6 +503,17 @@ public class JoCode {
         return true;
     }
 
+    /**
+     * @return {@code true} if the block at the given position may be replaced by a branch of a generated tree.
+     */
+    protected boolean canReplaceForGeneration(IWorld world, BlockPos pos) {
+        final BlockState state = world.getBlockState(pos);
+        return (state.canBeReplacedByLogs(world, pos) && !state.getBlock().is(LOGS)) ||
+                state.getMaterial().isLiquid() ||
+                state.getBlock().is(DTBlockTags.FOLIAGE) ||
+                state.getBlock().is(BlockTags.FLOWERS);
+    }
+
     /**
      * Precompute leaf smothering before applying to the world.
      *
@@ -463,22 +579,25 @@ public class JoCode {
             return;
         }
 
+        // Whether it snows is checked at the root, so it's the same for every top.
+        if (!ClimateCache.getNoiseBiome(world, rootPos.getX() >> 2, rootPos.getY() >> 2, rootPos.getZ() >> 2).shouldSnow(world, rootPos)) {
+            return;
+        }
+
         for (BlockPos.Mutable top : leafMap.getTops()) {
-            if (world.getUncachedNoiseBiome(rootPos.getX() >> 2, rootPos.getY() >> 2, rootPos.getZ() >> 2).shouldSnow(world, rootPos)) {
-                final BlockPos.Mutable iPos = new BlockPos.Mutable(top.getX(), top.getY(), top.getZ());
-                int yOffset = 0;
-
-                do {
-                    final BlockState state = world.getBlockState(iPos);
-                    if (state.getMaterial() == Material.AIR) {
-                        world.setBlock(iPos, Blocks.SNOW.defaultBlockState(), 2);
-                        break;
-                    } else if (state.getBlock() == Blocks.SNOW) {
-                        break;
-                    }
-                    iPos.setY(iPos.getY() + 1);
-                } while (yOffset++ < 4);
-            }
+            final BlockPos.Mutable iPos = new BlockPos.Mutable(top.getX(), top.getY(), top.getZ());
+            int yOffset = 0;
+
+            do {
+                final BlockState state = world.getBlockState(iPos);
+                if (state.getMaterial() == Material.AIR) {
+                    world.setBlock(iPos, Blocks.SNOW.defaultBlockState(), 2);
+                    break;
+                } else if (state.getBlock() == Blocks.SNOW) {
+                    break;
+                }
+                iPos.setY(iPos.getY() + 1);
+            } while (yOffset++ < 4);
         }
     }
 
@@ -0,0 +1,169 @@
+package com.ferreusveritas.dynamictrees.worldgen;
+
+import com.ferreusveritas.dynamictrees.api.TreeHelper;
+import com.ferreusveritas.dynamictrees.blocks.branches.BranchBlock;
+import com.ferreusveritas.dynamictrees.trees.Species;
+import com.ferreusveritas.dynamictrees.util.CoordUtils;
+import com.ferreusveritas.dynamictrees.util.SimpleVoxmap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link JoCode} expanded for one {@link Species}, facing and radius: the final position and radius of every branch,
+ * the smothered leaf map and the branch end points, all relative to the tree position (the block above the rooty
+ * dirt).
+ * <p>
+ * Templates are captured from the first generation of a code that placed every branch in open space, since the
+ * branch thicknesses and leaf map computed by the species' node inflator then only depend on the code. Later
+ * generations stamp the template directly, skipping the per-tree inflate and analyse pass, provided every branch can be
+ * placed and no other tree touches the template. Otherwise {@link JoCode} falls back to generating the tree normally.
+ * <p>
+ * Templates are immutable once created and may be shared between world generation threads.
+ */
+public final class JoCodeTemplate {
+
+    /**
+     * Marks a code that can never be templated, such as one that places more than one branch at the same position.
+     */
+    static final JoCodeTemplate INVALID = new JoCodeTemplate(new BlockPos[0], new int[0], new BlockPos[0],
+            new BlockPos[0], new SimpleVoxmap(0, 0, 0));
+
+    private final BlockPos[] branchOffsets;
+    private final int[] radii;
+    private final BlockPos[] boundaryOffsets;
+    private final BlockPos[] endOffsets;
+    private final SimpleVoxmap leafMap;
+
+    private JoCodeTemplate(BlockPos[] branchOffsets, int[] radii, BlockPos[] boundaryOffsets, BlockPos[] endOffsets,
+                           SimpleVoxmap leafMap) {
+        this.branchOffsets = branchOffsets;
+        this.radii = radii;
+        this.boundaryOffsets = boundaryOffsets;
+        this.endOffsets = endOffsets;
+        this.leafMap = leafMap;
+    }
+
+    /**
+     * Captures a template from a freshly generated and inflated tree.
+     *
+     * @param world       The world the tree was generated in.
+     * @param treePos     The position of the bottom block of the trunk.
+     * @param branches    The positions of the branches the code places, in order.
+     * @param analysed    The packed positions of every branch the inflation signal visited.
+     * @param leafMap     The smothered leaf map of the tree.
+     * @param endPoints   The branch end points of the tree.
+     * @return The template, {@link #INVALID} if the code can never be templated, or {@code null} if this tree touched
+     * something in the world and so cannot serve as a template.
+     */
+    @Nullable
+    static JoCodeTemplate capture(IWorld world, BlockPos treePos, List<BlockPos> branches, LongSet analysed,
+                                  SimpleVoxmap leafMap, List<BlockPos> endPoints) {
+        final LongSet branchSet = new LongOpenHashSet(branches.size());
+        for (BlockPos pos : branches) {
+            if (!branchSet.add(pos.asLong())) {
+                return INVALID;
+            }
+        }
+
+        // The inflation must have visited exactly the branches of the code, or some were blocked or the tree touched
+        // another one.
+        if (analysed.size() != branchSet.size() || !branchSet.containsAll(analysed)) {
+            return null;
+        }
+
+        final BlockPos[] branchOffsets = new BlockPos[branches.size()];
+        final int[] radii = new int[branches.size()];
+        for (int i = 0; i < branches.size(); i++) {
+            final BlockPos pos = branches.get(i);
+            final BlockState state = world.getBlockState(pos);
+            final BranchBlock branch = TreeHelper.getBranch(state);
+            if (branch == null) {
+                return null;
+            }
+            branchOffsets[i] = pos.subtract(treePos);
+            radii[i] = branch.getRadius(state);
+        }
+
+        // Gather every neighbour of the tree the inflation signal would probe, excluding the rooty dirt it starts from.
+        final LongSet boundarySet = new LongOpenHashSet();
+        final List<BlockPos> boundaryOffsets = new ArrayList<>();
+        for (BlockPos pos : branches) {
+            for (Direction dir : CoordUtils.DIRECTIONS) {
+                final BlockPos neighbour = pos.relative(dir);
+                if ((dir == Direction.DOWN && pos.equals(treePos)) || branchSet.contains(neighbour.asLong())) {
+                    continue;
+                }
+                if (boundarySet.add(neighbour.asLong())) {
+                    boundaryOffsets.add(neighbour.subtract(treePos));
+                }
+            }
+        }
+
+        final BlockPos[] endOffsets = new BlockPos[endPoints.size()];
+        for (int i = 0; i < endPoints.size(); i++) {
+            endOffsets[i] = endPoints.get(i).subtract(treePos);
+        }
+
+        return new JoCodeTemplate(branchOffsets, radii, boundaryOffsets.toArray(new BlockPos[0]), endOffsets,
+                new SimpleVoxmap(leafMap));
+    }
+
+    /**
+     * Places the branches of this template with their final radii, if all of them can be placed and no other tree
+     * touches them. Nothing is placed otherwise.
+     *
+     * @return {@code true} if the branches were placed.
+     */
+    boolean stamp(IWorld world, Species species, BlockPos treePos, JoCode code) {
+        final BlockPos.Mutable pos = new BlockPos.Mutable();
+        final BranchBlock[] branches = new BranchBlock[this.branchOffsets.length];
+
+        for (int i = 0; i < this.branchOffsets.length; i++) {
+            pos.setWithOffset(treePos, this.branchOffsets[i]);
+            if (!code.canReplaceForGeneration(world, pos)) {
+                return false;
+            }
+            branches[i] = species.getFamily().getBranchForPlacement(world, species, pos).orElse(null);
+            if (branches[i] == null) {
+                return false;
+            }
+        }
+
+        for (BlockPos offset : this.boundaryOffsets) {
+            pos.setWithOffset(treePos, offset);
+            final BlockState state = world.getBlockState(pos);
+            if (TreeHelper.getTreePart(state).shouldAnalyse(state, world, pos)) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < this.branchOffsets.length; i++) {
+            branches[i].setRadius(world, treePos.offset(this.branchOffsets[i]), this.radii[i], null, 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return A copy of the leaf map of this template, mapped to the given tree position.
+     */
+    SimpleVoxmap createLeafMap(BlockPos treePos, int radius) {
+        return new SimpleVoxmap(this.leafMap).setMapAndCenter(treePos, new BlockPos(radius, 0, radius));
+    }
+
+    List<BlockPos> getEndPoints(BlockPos treePos) {
+        final List<BlockPos> endPoints = new ArrayList<>(this.endOffsets.length);
+        for (BlockPos offset : this.endOffsets) {
+            endPoints.add(treePos.offset(offset));
+        }
+        return endPoints;
+    }
+
+}
@@ -33,7 +33,10 @@ public class TreeGenerator {
     protected static TreeGenerator INSTANCE;
 
     protected final UniversalPoissonDiscProvider circleProvider;
-    protected final RandomXOR random = new RandomXOR();
+    /**
+     * Held per thread, as trees may be generated from several world generation threads at once.
+     */
+    protected final ThreadLocal<RandomXOR> random = ThreadLocal.withInitial(RandomXOR::new);
 
     public static void initialise() {
         new TreeGenerator();
@@ -131,6 +134,10 @@ public class TreeGenerator {
             return GeneratorResult.NO_GROUND;
         }
 
+        // Seed from the level seed and position so the tree doesn't depend on the order chunks are generated in.
+        final RandomXOR random = this.random.get();
+        final Long seed = worldContext.seed();
+        random.setSeed((seed == null ? 0L : seed) ^ groundPos.asLong());
         random.setXOR(groundPos);
 
         final BlockState dirtState = worldContext.access().getBlockState(groundPos);
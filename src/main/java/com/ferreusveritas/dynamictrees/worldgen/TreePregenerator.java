@@ -0,0 +1,385 @@
+package com.ferreusveritas.dynamictrees.worldgen;
+
+import com.ferreusveritas.dynamictrees.api.worldgen.PoissonDiscProvider;
+import com.ferreusveritas.dynamictrees.event.handlers.PoissonDiscEventHandler;
+import com.ferreusveritas.dynamictrees.systems.poissondisc.LevelPoissonDiscProvider;
+import com.ferreusveritas.dynamictrees.systems.poissondisc.PoissonDisc;
+import com.ferreusveritas.dynamictrees.systems.poissondisc.PoissonDiscChunkSet;
+import com.ferreusveritas.dynamictrees.util.SafeChunkBounds;
+import com.ferreusveritas.dynamictrees.util.WorldContext;
+import net.minecraft.command.CommandSource;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.IChunk;
+import net.minecraft.world.server.ServerWorld;
+import org.apache.logging.log4j.LogManager;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Places dynamic trees over a rectangle of chunks ahead of players, as started by the {@code /dt pregen} command.
+ * <p>
+ * Work is split in two. The Poisson discs of every chunk are solved on a bounded worker pool, which only reads biome
+ * data. Trees are then placed from those discs on the server thread, within a time budget per tick, since species
+ * selection and generation read and write the live world.
+ * <p>
+ * The result does not depend on the number of worker threads. The discs of a chunk only depend on those of its
+ * neighbours with a lower {@link LevelPoissonDiscProvider#phase(int, int) phase}, so chunks are solved phase by phase:
+ * chunks within a phase never neighbour each other and so can be solved in any order, and each phase only starts once
+ * the previous one is complete, so workers find the discs they depend on already solved. Trees are placed in a fixed
+ * order, and the random used for each tree is seeded from its position.
+ * <p>
+ * Only chunks that are already fully generated are processed. Chunks that already had their discs generated, meaning
+ * trees were already placed by world generation, are skipped.
+ * <p>
+ * When the provider keeps disc data in chunk NBT, the data of unloaded chunks is read from their NBT first, both to
+ * skip chunks that already have discs and so new discs fit around those of unloaded neighbours. Trees are then only
+ * placed once every disc is solved, and each chunk is loaded before its trees are placed so its new discs are saved
+ * with it, as loading a chunk replaces its discs with those in its NBT.
+ */
+public final class TreePregenerator {
+
+    private static final Map<RegistryKey<World>, TreePregenerator> ACTIVE = new ConcurrentHashMap<>();
+
+    private static final long TICK_BUDGET_NANOS = 20_000_000L; // 20ms of each tick.
+    private static final long REPORT_INTERVAL_NANOS = 5_000_000_000L;
+
+    private final ServerWorld world;
+    private final CommandSource source;
+    private final WorldContext worldContext;
+    private final PoissonDiscProvider discProvider;
+    private final BiomeDatabase biomeDatabase;
+    private final List<ChunkPos> chunks = new ArrayList<>();
+    private final AtomicReferenceArray<List<PoissonDisc>> discs;
+    private final ExecutorService executor;
+    private final int minX, minZ, maxX, maxZ;
+
+    /**
+     * Whether the provider keeps disc data in chunk NBT, in which case the solved data of each chunk is kept in {@link
+     * #discData} until the chunk is loaded.
+     */
+    private final boolean chunkData;
+    private final byte[][] discData;
+    /**
+     * Unloaded chunks whose disc data was read from their NBT, to be released once done.
+     */
+    private final Queue<ChunkPos> readDiscChunks = new ConcurrentLinkedQueue<>();
+    private volatile boolean solved = false;
+
+    private final long startTime = System.nanoTime();
+    private long lastReport = startTime;
+    private int applied = 0;
+    private int skipped = 0;
+    private volatile boolean cancelled = false;
+
+    private TreePregenerator(ServerWorld world, CommandSource source, ChunkPos from, ChunkPos to, int threads) {
+        this.world = world;
+        this.source = source;
+        this.worldContext = WorldContext.create(world);
+        this.discProvider = TreeGenerator.getTreeGenerator().getCircleProvider().getProvider(this.worldContext);
+        this.biomeDatabase = BiomeDatabases.getDimensionalOrDefault(world.dimension().location());
+
+        this.minX = Math.min(from.x, to.x);
+        this.minZ = Math.min(from.z, to.z);
+        this.maxX = Math.max(from.x, to.x);
+        this.maxZ = Math.max(from.z, to.z);
+        for (int z = this.minZ; z <= this.maxZ; z++) {
+            for (int x = this.minX; x <= this.maxX; x++) {
+                this.chunks.add(new ChunkPos(x, z));
+            }
+        }
+        this.discs = new AtomicReferenceArray<>(this.chunks.size());
+        this.chunkData = this.discProvider.usesChunkData();
+        this.discData = this.chunkData ? new byte[this.chunks.size()][] : null;
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "DynamicTrees-Pregen-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts pregenerating trees over the given rectangle of chunks, inclusive.
+     *
+     * @return {@code false} if a pregeneration is already running in the world.
+     */
+    public static boolean start(ServerWorld world, CommandSource source, ChunkPos from, ChunkPos to, int threads) {
+        final TreePregenerator pregenerator = new TreePregenerator(world, source, from, to, threads);
+        if (ACTIVE.putIfAbsent(world.dimension(), pregenerator) != null) {
+            pregenerator.executor.shutdown();
+            return false;
+        }
+        pregenerator.solveDiscs();
+        return true;
+    }
+
+    /**
+     * Cancels the pregeneration running in the given world.
+     *
+     * @return {@code false} if there was none.
+     */
+    public static boolean cancel(ServerWorld world) {
+        final TreePregenerator pregenerator = ACTIVE.remove(world.dimension());
+        if (pregenerator == null) {
+            return false;
+        }
+        pregenerator.cancelled = true;
+        pregenerator.executor.shutdownNow();
+        pregenerator.releaseReadDiscChunks();
+        return true;
+    }
+
+    /**
+     * Places trees of any active pregeneration in the given world. Called on the server thread every world tick.
+     */
+    public static void tick(World world) {
+        final TreePregenerator pregenerator = ACTIVE.get(world.dimension());
+        if (pregenerator != null) {
+            pregenerator.apply();
+        }
+    }
+
+    private void solveDiscs() {
+        // Mark chunks which are loaded as they are known to be fully generated and have their discs in memory.
+        final boolean[] loaded = new boolean[this.chunks.size()];
+        final boolean[] generated = new boolean[this.chunks.size()];
+        for (int i = 0; i < this.chunks.size(); i++) {
+            final ChunkPos pos = this.chunks.get(i);
+            loaded[i] = this.world.getChunkSource().getChunkNow(pos.x, pos.z) != null;
+        }
+
+        CompletableFuture<Void> phases = this.readChunks(loaded, generated);
+        for (int phase = 0; phase < 9; phase++) {
+            final int phaseX = phase % 3; // As in LevelPoissonDiscProvider#phase.
+            final int phaseZ = phase / 3;
+            phases = phases.thenCompose(ignored -> this.solvePhase(generated, phaseX, phaseZ));
+        }
+
+        phases.whenComplete((ignored, throwable) -> {
+            this.executor.shutdown();
+            if (throwable != null && !this.cancelled) {
+                LogManager.getLogger().error("Failed to solve Poisson discs for tree pregeneration.", throwable);
+                this.cancelled = true;
+            }
+            this.solved = true;
+        });
+    }
+
+    /**
+     * Reads the unloaded chunks from their region files, marking those that are fully generated. When disc data is kept
+     * in chunk NBT, the discs of those chunks and of the unloaded chunks bordering the rectangle are also read into the
+     * provider.
+     */
+    private CompletableFuture<Void> readChunks(boolean[] loaded, boolean[] generated) {
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < this.chunks.size(); i++) {
+            if (loaded[i]) {
+                generated[i] = true;
+                continue;
+            }
+
+            final int index = i;
+            final ChunkPos pos = this.chunks.get(i);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                final CompoundNBT tag = this.readChunk(pos);
+                generated[index] = tag != null && ChunkStatus.byName(tag.getCompound("Level").getString("Status"))
+                        .getChunkType() == ChunkStatus.Type.LEVELCHUNK;
+                if (generated[index]) {
+                    this.readDiscData(pos, tag);
+                }
+            }, this.executor));
+        }
+
+        if (this.chunkData) {
+            for (int z = this.minZ - 1; z <= this.maxZ + 1; z++) {
+                for (int x = this.minX - 1; x <= this.maxX + 1; x++) {
+                    if (x >= this.minX && x <= this.maxX && z >= this.minZ && z <= this.maxZ ||
+                            this.world.getChunkSource().getChunkNow(x, z) != null) {
+                        continue;
+                    }
+                    final ChunkPos pos = new ChunkPos(x, z);
+                    tasks.add(CompletableFuture.runAsync(() -> {
+                        final CompoundNBT tag = this.readChunk(pos);
+                        if (tag != null) {
+                            this.readDiscData(pos, tag);
+                        }
+                    }, this.executor));
+                }
+            }
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Reads the NBT of the given unloaded chunk from its region file. Safe to call from worker threads.
+     */
+    @Nullable
+    private CompoundNBT readChunk(ChunkPos pos) {
+        if (this.cancelled) {
+            return null;
+        }
+        try {
+            return this.world.getChunkSource().chunkMap.read(pos);
+        } catch (IOException e) {
+            LogManager.getLogger().error("Failed to read chunk {} for tree pregeneration.", pos, e);
+            return null;
+        }
+    }
+
+    /**
+     * Sets the disc data stored in the given chunk's NBT to the provider, if it keeps disc data in chunk NBT.
+     */
+    private void readDiscData(ChunkPos pos, CompoundNBT tag) {
+        if (!this.chunkData || !tag.contains(PoissonDiscEventHandler.CIRCLE_DATA_ID)) {
+            return;
+        }
+        final byte[] data = tag.getByteArray(PoissonDiscEventHandler.CIRCLE_DATA_ID);
+        if (PoissonDiscChunkSet.hasDiscs(data)) {
+            this.discProvider.setChunkPoissonData(pos.x, 0, pos.z, data);
+            this.readDiscChunks.add(pos);
+        }
+    }
+
+    private CompletableFuture<Void> solvePhase(boolean[] generated, int phaseX, int phaseZ) {
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < this.chunks.size(); i++) {
+            final ChunkPos pos = this.chunks.get(i);
+            if (Math.floorMod(pos.x, 3) != phaseX || Math.floorMod(pos.z, 3) != phaseZ) {
+                continue;
+            }
+
+            final int index = i;
+            if (!generated[index]) {
+                this.discs.set(index, SKIPPED);
+                continue;
+            }
+
+            tasks.add(CompletableFuture.runAsync(() -> {
+                if (this.cancelled || this.discProvider.isChunkGenerated(pos.x, 0, pos.z)) {
+                    this.discs.set(index, SKIPPED);
+                    return;
+                }
+                final List<PoissonDisc> chunkDiscs = this.discProvider.getPoissonDiscs(pos.x, 0, pos.z);
+                if (this.chunkData) {
+                    this.discData[index] = this.discProvider.getChunkPoissonData(pos.x, 0, pos.z);
+                }
+                this.discs.set(index, chunkDiscs);
+            }, this.executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Marks chunks that are skipped. Compared by identity.
+     */
+    private static final List<PoissonDisc> SKIPPED = new ArrayList<>(0);
+
+    private void apply() {
+        if (this.cancelled) {
+            this.finish(false);
+            return;
+        }
+
+        if (this.chunkData && !this.solved) {
+            return; // Loading chunks would replace the discs of chunks that are still being solved from.
+        }
+
+        final long tickStart = System.nanoTime();
+        final int done = this.applied + this.skipped;
+
+        for (int i = done; i < this.chunks.size() && System.nanoTime() - tickStart < TICK_BUDGET_NANOS; i++) {
+            final List<PoissonDisc> chunkDiscs = this.discs.get(i);
+            if (chunkDiscs == null) {
+                break; // Not solved yet; chunks must be placed in order.
+            }
+
+            if (chunkDiscs == SKIPPED) {
+                this.skipped++;
+                continue;
+            }
+
+            if (this.chunkData) {
+                // Load the chunk first, then set its new discs so they are saved with it.
+                final ChunkPos pos = this.chunks.get(i);
+                final IChunk chunk = this.world.getChunk(pos.x, pos.z);
+                this.discProvider.setChunkPoissonData(pos.x, 0, pos.z, this.discData[i]);
+                this.discData[i] = null;
+                chunk.setUnsaved(true);
+            }
+
+            // Species selection and code expansion stay here, as they find the ground and test soil in the live world.
+            for (PoissonDisc disc : chunkDiscs) {
+                TreeGenerator.getTreeGenerator().makeTrees(this.worldContext, this.biomeDatabase, disc,
+                        SafeChunkBounds.ANY);
+            }
+            this.discs.set(i, SKIPPED); // Release the discs.
+            this.applied++;
+        }
+
+        if (this.applied + this.skipped == this.chunks.size()) {
+            this.finish(true);
+            return;
+        }
+
+        final long now = System.nanoTime();
+        if (now - this.lastReport >= REPORT_INTERVAL_NANOS) {
+            this.lastReport = now;
+            this.source.sendSuccess(new TranslationTextComponent("commands.dynamictrees.pregen.progress",
+                    this.applied + this.skipped, this.chunks.size(), this.formatRate(now))
+                    .withStyle(TextFormatting.GRAY), false);
+        }
+    }
+
+    private void finish(boolean completed) {
+        ACTIVE.remove(this.world.dimension(), this);
+        this.releaseReadDiscChunks();
+
+        if (!completed) {
+            this.source.sendFailure(new TranslationTextComponent("commands.dynamictrees.pregen.cancelled",
+                    this.applied, this.chunks.size()));
+            return;
+        }
+
+        final long now = System.nanoTime();
+        this.source.sendSuccess(new TranslationTextComponent("commands.dynamictrees.success.pregen", this.applied,
+                this.skipped, String.format("%.1f", (now - this.startTime) / 1e9), this.formatRate(now))
+                .withStyle(TextFormatting.GREEN), true);
+    }
+
+    /**
+     * Releases the disc data read from chunks that are still unloaded, as nothing else will. Called on the server
+     * thread.
+     */
+    private void releaseReadDiscChunks() {
+        for (ChunkPos pos; (pos = this.readDiscChunks.poll()) != null; ) {
+            if (this.world.getChunkSource().getChunkNow(pos.x, pos.z) == null) {
+                this.discProvider.unloadChunkPoissonData(pos.x, 0, pos.z);
+            }
+        }
+    }
+
+    private String formatRate(long now) {
+        final double seconds = Math.max((now - this.startTime) / 1e9, 1e-3);
+        return String.format("%.1f", (this.applied + this.skipped) / seconds);
+    }
+
+}
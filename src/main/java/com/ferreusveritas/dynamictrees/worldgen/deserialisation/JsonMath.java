@@ -15,17 +15,23 @@ public class JsonMath {
 
     public MathOperator rootOp;
 
+    /**
+     * The {@link #rootOp} compiled by {@link MathOperator#compile()}, which is what is evaluated.
+     */
+    private final MathOperator compiledOp;
+
     public JsonMath(JsonElement mathElement) {
         if (mathElement.isJsonObject()) {
             JsonObject mathObject = mathElement.getAsJsonObject();
 
             for (Entry<String, JsonElement> entry : mathObject.entrySet()) {
                 rootOp = processElement(entry.getKey(), entry.getValue());
-                if (rootOp != NULL_OPERATOR) {
-                    return;
+                if (rootOp != null && rootOp != NULL_OPERATOR) {
+                    break;
                 }
             }
         }
+        compiledOp = rootOp == null ? NULL_OPERATOR : rootOp.compile();
     }
 
     private MathOperator getVariable(String name) {
@@ -50,7 +56,7 @@ public class JsonMath {
 		}
 
         ArrayList<MathOperator> paramList = new ArrayList<>();
-        Species speciesArg = Species.NULL_SPECIES;
+        Species speciesArg = null;
 
         //If the value is an array then these are the parameters for this operation
         if (value.isJsonArray()) {
@@ -73,7 +79,7 @@ public class JsonMath {
                     }
                 }
 
-                if (m != NULL_OPERATOR) {
+                if (m != null && m != NULL_OPERATOR) { // Unresolved operators are dropped.
                     paramList.add(m);
                 }
 
@@ -104,7 +110,11 @@ public class JsonMath {
             case IFGT:
                 return new IfGreaterThan(paramArray);
             case SPECIES:
-                return speciesArg != Species.NULL_SPECIES ? new IfSpecies(speciesArg, paramArray) : null;
+                if (speciesArg == null) {
+                    LogManager.getLogger().warn("Json math species operator " + value + " has no valid species and will be ignored.");
+                    return null;
+                }
+                return new IfSpecies(speciesArg, paramArray);
             case DEBUG:
                 return new Debug(paramArray);
             default:
@@ -115,12 +125,12 @@ public class JsonMath {
 
     public float apply(Random random, float noise) {
         MathContext mc = new MathContext(noise, random);
-        return rootOp.apply(mc);
+        return compiledOp.apply(mc);
     }
 
     public float apply(Random random, Species species, float radius) {
         MathContext mc = new MathSpeciesContext(random, species, radius);
-        return rootOp.apply(mc);
+        return compiledOp.apply(mc);
     }
 
     public static class MathContext {
@@ -147,6 +157,116 @@ public class JsonMath {
 
     public interface MathOperator {
         float apply(MathContext mc);
+
+        /**
+         * Compiles this operator and its operands into an equivalent operator that is cheaper to evaluate, folding
+         * constant operands and specialising operations on constants and noise into single closures.
+         *
+         * @return The compiled operator, or this operator if it can't be simplified.
+         */
+        default MathOperator compile() {
+            return this;
+        }
+    }
+
+    private static MathOperator[] compileAll(MathOperator[] operators) {
+        final MathOperator[] compiled = new MathOperator[operators.length];
+        for (int i = 0; i < operators.length; i++) {
+            compiled[i] = operators[i].compile();
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles a left fold of the given function over the compiled operands, starting from the given identity operand
+     * or from the first operand if it's {@code null}, as the n-ary operators evaluate them.
+     */
+    private static MathOperator compileFold(MathFunction function, @Nullable Const identity, MathOperator[] operands) {
+        final MathOperator[] compiled = compileAll(operands);
+        if (compiled.length == 2) {
+            return compileBinary(function, compiled[0], compiled[1]);
+        }
+        if (identity == null && compiled.length == 0) {
+            return new Const(0.0f);
+        }
+
+        MathOperator result = identity == null ? compiled[0] : identity;
+        for (int i = identity == null ? 1 : 0; i < compiled.length; i++) {
+            result = compileBinary(function, result, compiled[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the given arithmetic function of two compiled operands into a single closure, specialised for constant
+     * and noise operands, or into a constant if both operands are constant. Operands are evaluated left to right, so
+     * random numbers are drawn in the same order as by the interpreted operators.
+     */
+    private static MathOperator compileBinary(MathFunction function, MathOperator a, MathOperator b) {
+        if (a instanceof Const && b instanceof Const) {
+            return new Const(applyBinary(function, ((Const) a).value, ((Const) b).value));
+        }
+
+        if (b instanceof Const) {
+            final float vb = ((Const) b).value;
+            if (a instanceof Noise) {
+                switch (function) {
+                    case ADD: return mc -> mc.noise + vb;
+                    case SUB: return mc -> mc.noise - vb;
+                    case MUL: return mc -> mc.noise * vb;
+                    case DIV: return mc -> mc.noise / vb;
+                    case MOD: return mc -> mc.noise % vb;
+                    case MAX: return mc -> Math.max(mc.noise, vb);
+                    case MIN: return mc -> Math.min(mc.noise, vb);
+                }
+            }
+            switch (function) {
+                case ADD: return mc -> a.apply(mc) + vb;
+                case SUB: return mc -> a.apply(mc) - vb;
+                case MUL: return mc -> a.apply(mc) * vb;
+                case DIV: return mc -> a.apply(mc) / vb;
+                case MOD: return mc -> a.apply(mc) % vb;
+                case MAX: return mc -> Math.max(a.apply(mc), vb);
+                case MIN: return mc -> Math.min(a.apply(mc), vb);
+            }
+        }
+
+        if (a instanceof Const) {
+            final float va = ((Const) a).value;
+            switch (function) {
+                case ADD: return mc -> va + b.apply(mc);
+                case SUB: return mc -> va - b.apply(mc);
+                case MUL: return mc -> va * b.apply(mc);
+                case DIV: return mc -> va / b.apply(mc);
+                case MOD: return mc -> va % b.apply(mc);
+                case MAX: return mc -> Math.max(va, b.apply(mc));
+                case MIN: return mc -> Math.min(va, b.apply(mc));
+            }
+        }
+
+        switch (function) {
+            case ADD: return mc -> a.apply(mc) + b.apply(mc);
+            case SUB: return mc -> a.apply(mc) - b.apply(mc);
+            case MUL: return mc -> a.apply(mc) * b.apply(mc);
+            case DIV: return mc -> a.apply(mc) / b.apply(mc);
+            case MOD: return mc -> a.apply(mc) % b.apply(mc);
+            case MAX: return mc -> Math.max(a.apply(mc), b.apply(mc));
+            case MIN: return mc -> Math.min(a.apply(mc), b.apply(mc));
+            default: throw new IllegalArgumentException("Cannot compile " + function + " as a binary function.");
+        }
+    }
+
+    private static float applyBinary(MathFunction function, float a, float b) {
+        switch (function) {
+            case ADD: return a + b;
+            case SUB: return a - b;
+            case MUL: return a * b;
+            case DIV: return a / b;
+            case MOD: return a % b;
+            case MAX: return Math.max(a, b);
+            case MIN: return Math.min(a, b);
+            default: throw new IllegalArgumentException("Cannot compile " + function + " as a binary function.");
+        }
     }
 
     public static class Const implements MathOperator {
@@ -218,6 +338,11 @@ public class JsonMath {
 
             return r;
         }
+
+        @Override
+        public MathOperator compile() {
+            return compileFold(MathFunction.ADD, new Const(0.0f), functions);
+        }
     }
 
     public static class Subtractor implements MathOperator {
@@ -245,6 +370,11 @@ public class JsonMath {
 
             return r == null ? 0.0f : r;
         }
+
+        @Override
+        public MathOperator compile() {
+            return compileFold(MathFunction.SUB, null, functions);
+        }
     }
 
     public static class Multiplier implements MathOperator {
@@ -271,6 +401,11 @@ public class JsonMath {
 
             return r;
         }
+
+        @Override
+        public MathOperator compile() {
+            return compileFold(MathFunction.MUL, new Const(1.0f), functions);
+        }
     }
 
     public static class Divider implements MathOperator {
@@ -298,6 +433,11 @@ public class JsonMath {
 
             return r == null ? 0.0f : r;
         }
+
+        @Override
+        public MathOperator compile() {
+            return compileFold(MathFunction.DIV, null, functions);
+        }
     }
 
     public static class Modulus implements MathOperator {
@@ -319,6 +459,11 @@ public class JsonMath {
 
             return 0.0f;
         }
+
+        @Override
+        public MathOperator compile() {
+            return dual ? compileBinary(MathFunction.MOD, functions[0].compile(), functions[1].compile()) : new Const(0.0f);
+        }
     }
 
 
@@ -347,6 +492,11 @@ public class JsonMath {
 
             return r == null ? 0.0f : r;
         }
+
+        @Override
+        public MathOperator compile() {
+            return compileFold(MathFunction.MAX, null, functions);
+        }
     }
 
     public static class Minimum implements MathOperator {
@@ -374,6 +524,11 @@ public class JsonMath {
 
             return r == null ? 0.0f : r;
         }
+
+        @Override
+        public MathOperator compile() {
+            return compileFold(MathFunction.MIN, null, functions);
+        }
     }
 
     public static class IfGreaterThan implements MathOperator {
@@ -394,6 +549,25 @@ public class JsonMath {
             return 0.0f;
         }
 
+        @Override
+        public MathOperator compile() {
+            if (functions.length != 4) {
+                return new Const(0.0f);
+            }
+
+            final MathOperator[] compiled = compileAll(functions);
+            final MathOperator a = compiled[0], b = compiled[1], ifGreater = compiled[2], otherwise = compiled[3];
+
+            if (a instanceof Const && b instanceof Const) {
+                return ((Const) a).value > ((Const) b).value ? ifGreater : otherwise;
+            }
+            if (b instanceof Const) {
+                final float vb = ((Const) b).value;
+                return mc -> a.apply(mc) > vb ? ifGreater.apply(mc) : otherwise.apply(mc);
+            }
+            return mc -> a.apply(mc) > b.apply(mc) ? ifGreater.apply(mc) : otherwise.apply(mc);
+        }
+
     }
 
     public static class IfSpecies implements MathOperator {
@@ -416,6 +590,11 @@ public class JsonMath {
             return 0.0f;
         }
 
+        @Override
+        public MathOperator compile() {
+            return new IfSpecies(species, compileAll(functions));
+        }
+
     }
 
     public static class Debug implements MathOperator {
@@ -436,6 +615,11 @@ public class JsonMath {
             return 0;
         }
 
+        @Override
+        public MathOperator compile() {
+            return new Debug(compileAll(functions));
+        }
+
     }
 
     public static final MathOperator NULL_OPERATOR = new Null();